@@ -0,0 +1,97 @@
+package de.felix.lumelobby;
+
+import de.felix.lumelobby.api.AutoTeleportBypass;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-player cache in front of the external {@link AutoTeleportBypass} hook, which is asked from move events and
+ * every UX tick. Entries are dropped on quit and world change, on explicit invalidation, and optionally after a TTL.
+ */
+public final class AutoTeleportBypassCache implements Listener {
+
+    private final Plugin plugin;
+    private final long ttlNanos;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile AutoTeleportBypass bypass;
+
+    /**
+     * @param ttlMillis how long a decision stays valid, 0 keeps it until invalidated
+     */
+    public AutoTeleportBypassCache(Plugin plugin, long ttlMillis) {
+        this.plugin = plugin;
+        this.ttlNanos = Math.max(0L, ttlMillis) * 1_000_000L;
+    }
+
+    void setBypass(AutoTeleportBypass bypass) {
+        this.bypass = bypass;
+        entries.clear();
+    }
+
+    boolean shouldBypass(Player player) {
+        AutoTeleportBypass hook = bypass;
+        if (hook == null || player == null) return false;
+
+        UUID id = player.getUniqueId();
+        long now = System.nanoTime();
+        Entry entry = entries.get(id);
+        if (entry != null && (ttlNanos == 0L || now - entry.at() < ttlNanos)) {
+            hits.increment();
+            return entry.value();
+        }
+
+        misses.increment();
+        boolean value;
+        try {
+            value = hook.bypassAutoTeleport(player);
+        } catch (Exception e) {
+            plugin.getLogger().warning("[Lobby] bypass hook error: " + e.getMessage());
+            return false;
+        }
+        // A hook swap in between cleared the map; don't repopulate it with the old hook's answer.
+        if (hook == bypass) entries.put(id, new Entry(value, now));
+        return value;
+    }
+
+    void invalidate(Player player) {
+        if (player == null) return;
+        entries.remove(player.getUniqueId());
+    }
+
+    void invalidateAll() {
+        entries.clear();
+    }
+
+    public String statusLine() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        String ratio = total == 0 ? "0.0" : String.format(Locale.ROOT, "%.1f", hit * 100.0 / total);
+        return "Bypass cache: " + entries.size() + " entries | " + total + " lookups | hits " + ratio + "%";
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onChangedWorld(PlayerChangedWorldEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    private record Entry(boolean value, long at) {
+    }
+}
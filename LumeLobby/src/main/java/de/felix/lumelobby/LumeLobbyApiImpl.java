@@ -3,7 +3,9 @@ package de.felix.lumelobby;
 import de.felix.lumelobby.api.LobbyJoinRouter;
 import de.felix.lumelobby.api.AutoTeleportBypass;
 import de.felix.lumelobby.api.HubCommandHook;
+import de.felix.lumelobby.api.HubPartyHook;
 import de.felix.lumelobby.api.LumeLobbyApi;
+import de.felix.lumelobby.api.TeleportResult;
 import de.felix.lumelobby.config.LobbyConfig;
 import de.felix.lumelobby.scheduler.PaperScheduler;
 import de.felix.lumelobby.world.HubManager;
@@ -14,7 +16,10 @@ import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 @RequiredArgsConstructor
 final class LumeLobbyApiImpl implements LumeLobbyApi {
@@ -24,8 +29,8 @@ final class LumeLobbyApiImpl implements LumeLobbyApi {
     private final PaperScheduler scheduler;
     private final HubManager hubManager;
     private final LobbyManager lobbyManager;
+    private final AutoTeleportBypassCache bypassCache;
     private volatile LobbyJoinRouter lobbyJoinRouter;
-    private volatile AutoTeleportBypass autoTeleportBypass;
     private volatile HubCommandHook hubCommandHook;
 
     private boolean lobbySameAsHub() {
@@ -79,6 +84,28 @@ final class LumeLobbyApiImpl implements LumeLobbyApi {
         lobbyManager.sendToLobby(player);
     }
 
+    @Override
+    public CompletableFuture<TeleportResult> sendToHubAsync(Player player) {
+        return hubManager.sendToHubAsync(player);
+    }
+
+    @Override
+    public CompletableFuture<TeleportResult> sendToLobbyAsync(Player player) {
+        if (lobbySameAsHub()) return hubManager.sendToHubAsync(player);
+        return lobbyManager.sendToLobbyAsync(player);
+    }
+
+    @Override
+    public CompletableFuture<List<TeleportResult>> sendToHub(Collection<? extends Player> players) {
+        return hubManager.sendToHub(players);
+    }
+
+    @Override
+    public CompletableFuture<List<TeleportResult>> sendToLobby(Collection<? extends Player> players) {
+        if (lobbySameAsHub()) return hubManager.sendToHub(players);
+        return lobbyManager.sendToLobby(players);
+    }
+
     @Override
     public void setHubSpawnFrom(Player player) {
         hubManager.setHubSpawnFrom(player);
@@ -160,18 +187,26 @@ final class LumeLobbyApiImpl implements LumeLobbyApi {
 
     @Override
     public boolean shouldBypassAutoTeleport(Player player) {
-        AutoTeleportBypass bypass = autoTeleportBypass;
-        if (bypass == null) return false;
-        try {
-            return bypass.bypassAutoTeleport(player);
-        } catch (Exception e) {
-            plugin.getLogger().warning("[Lobby] bypass hook error: " + e.getMessage());
-            return false;
-        }
+        return bypassCache.shouldBypass(player);
     }
 
     @Override
     public void setAutoTeleportBypass(AutoTeleportBypass bypass) {
-        this.autoTeleportBypass = bypass;
+        bypassCache.setBypass(bypass);
+    }
+
+    @Override
+    public void invalidateBypass(Player player) {
+        bypassCache.invalidate(player);
+    }
+
+    @Override
+    public void invalidateAllBypass() {
+        bypassCache.invalidateAll();
+    }
+
+    @Override
+    public void setHubPartyHook(HubPartyHook hook) {
+        hubManager.setPartyHook(hook);
     }
 }
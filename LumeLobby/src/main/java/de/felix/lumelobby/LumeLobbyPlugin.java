@@ -8,11 +8,13 @@ import de.felix.lumelobby.ux.HubUxManager;
 import de.felix.lumelobby.ux.HubUxInteractionListener;
 import de.felix.lumelobby.ux.HubDoubleJumpListener;
 import de.felix.lumelobby.world.HubManager;
+import de.felix.lumelobby.world.HubMembershipIndex;
 import de.felix.lumelobby.world.HubPlayerListener;
 import de.felix.lumelobby.world.HubProtectionListener;
 import de.felix.lumelobby.world.LobbyManager;
 import de.felix.lumelobby.world.LobbyPlayerListener;
 import de.felix.lumelobby.world.LobbyProtectionListener;
+import de.felix.lumelobby.world.TeleportAdmissionQueue;
 import de.felix.lumelobby.motd.MotdListener;
 import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -25,7 +27,11 @@ public final class LumeLobbyPlugin extends JavaPlugin {
     private volatile PaperScheduler scheduler;
     private volatile HubManager hubManager;
     private volatile LobbyManager lobbyManager;
+    private volatile HubMembershipIndex membership;
     private volatile HubUxManager hubUx;
+    private volatile MotdListener motd;
+    private volatile TeleportAdmissionQueue teleportQueue;
+    private volatile AutoTeleportBypassCache bypassCache;
     private volatile LumeLobbyApi api;
 
     @Override
@@ -38,30 +44,41 @@ public final class LumeLobbyPlugin extends JavaPlugin {
         configModel = LobbyConfig.from(getConfig());
         scheduler = new PaperScheduler(this);
 
-        hubManager = new HubManager(this, scheduler, configModel);
+        teleportQueue = new TeleportAdmissionQueue(this, configModel.teleportQueue().perTick());
+        teleportQueue.start();
+
+        hubManager = new HubManager(this, scheduler, configModel, teleportQueue);
         hubManager.ensureHubWorld();
 
-        lobbyManager = new LobbyManager(this, scheduler, configModel);
+        lobbyManager = new LobbyManager(this, scheduler, configModel, teleportQueue);
         if (!configModel.lobby().sameAsHub()) {
             lobbyManager.ensureLobbyWorld();
         }
 
-        var api = new LumeLobbyApiImpl(this, configModel, scheduler, hubManager, lobbyManager);
+        membership = new HubMembershipIndex(configModel);
+        getServer().getPluginManager().registerEvents(membership, this);
+        membership.rebuild();
+
+        bypassCache = new AutoTeleportBypassCache(this, configModel.autoTeleportBypass().cacheTtlMillis());
+        getServer().getPluginManager().registerEvents(bypassCache, this);
+
+        var api = new LumeLobbyApiImpl(this, configModel, scheduler, hubManager, lobbyManager, bypassCache);
         getServer().getServicesManager().register(LumeLobbyApi.class, api, this, ServicePriority.Normal);
         this.api = api;
 
-        getServer().getPluginManager().registerEvents(new MotdListener(configModel), this);
+        motd = new MotdListener(configModel);
+        getServer().getPluginManager().registerEvents(motd, this);
         getServer().getPluginManager().registerEvents(new HubPlayerListener(hubManager, api), this);
         getServer().getPluginManager().registerEvents(new LobbyPlayerListener(hubManager, api), this);
-        getServer().getPluginManager().registerEvents(new HubProtectionListener(this, configModel, hubManager), this);
+        getServer().getPluginManager().registerEvents(new HubProtectionListener(this, configModel, hubManager, membership), this);
         if (!configModel.lobby().sameAsHub()) {
-            getServer().getPluginManager().registerEvents(new LobbyProtectionListener(this, configModel, lobbyManager), this);
+            getServer().getPluginManager().registerEvents(new LobbyProtectionListener(this, configModel, lobbyManager, membership), this);
         }
 
-        hubUx = HubUxManager.create(this, configModel, hubManager, api);
+        hubUx = HubUxManager.create(this, configModel, hubManager, api, membership);
         getServer().getPluginManager().registerEvents(new HubUxListener(this, () -> this.hubUx), this);
         getServer().getPluginManager().registerEvents(new HubUxInteractionListener(this, () -> this.hubUx), this);
-        getServer().getPluginManager().registerEvents(new HubDoubleJumpListener(this, configModel, api), this);
+        getServer().getPluginManager().registerEvents(new HubDoubleJumpListener(configModel, api, membership), this);
         hubUx.start();
 
         registerCommands(api);
@@ -72,6 +89,8 @@ public final class LumeLobbyPlugin extends JavaPlugin {
         HubUxManager ux = hubUx;
         hubUx = null;
         if (ux != null) ux.stop();
+        TeleportAdmissionQueue queue = teleportQueue;
+        if (queue != null) queue.stop();
         api = null;
         getServer().getServicesManager().unregisterAll(this);
     }
@@ -83,9 +102,30 @@ public final class LumeLobbyPlugin extends JavaPlugin {
         registerCommand("cosmetics", "Open cosmetics menu", java.util.List.of("cos"), new de.felix.lumelobby.ux.CosmeticsCommand(() -> this.hubUx));
     }
 
+    public HubUxManager hubUx() {
+        return hubUx;
+    }
+
+    public HubManager hubManager() {
+        return hubManager;
+    }
+
+    public TeleportAdmissionQueue teleportQueue() {
+        return teleportQueue;
+    }
+
+    public AutoTeleportBypassCache bypassCache() {
+        return bypassCache;
+    }
+
+    public MotdListener motd() {
+        return motd;
+    }
+
     public void reloadHubUx() {
         reloadConfig();
         configModel = LobbyConfig.from(getConfig());
+        membership.reload(configModel);
 
         HubUxManager current = hubUx;
         if (current != null) current.stop();
@@ -95,7 +135,7 @@ public final class LumeLobbyPlugin extends JavaPlugin {
             getLogger().warning("[HubUx] reload skipped: API not available");
             return;
         }
-        hubUx = HubUxManager.create(this, configModel, hubManager, currentApi);
+        hubUx = HubUxManager.create(this, configModel, hubManager, currentApi, membership);
         hubUx.start();
         getLogger().info("[HubUx] Reloaded from config.yml");
     }
@@ -109,5 +149,8 @@ public final class LumeLobbyPlugin extends JavaPlugin {
         if (pm.getPermission("lumelobby.admin") == null) {
             pm.addPermission(new Permission("lumelobby.admin", "Admin lobby commands", PermissionDefault.OP));
         }
+        if (pm.getPermission(TeleportAdmissionQueue.PERM_PRIORITY) == null) {
+            pm.addPermission(new Permission(TeleportAdmissionQueue.PERM_PRIORITY, "Skip ahead in the hub teleport queue", PermissionDefault.OP));
+        }
     }
 }
@@ -0,0 +1,45 @@
+package de.felix.lumelobby.api;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+/**
+ * Fired on the main thread when a player enters the hub area: the worlds where hub UX applies
+ * (all hub instances, the lobby if {@code lobby.sameAsHub}, or {@code hubUx.worlds} when set).
+ * Fired once per transition; moving between two hub worlds fires nothing.
+ */
+public final class HubEnterEvent extends PlayerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final World world;
+    private final HubTransitionCause cause;
+
+    public HubEnterEvent(Player player, World world, HubTransitionCause cause) {
+        super(player);
+        this.world = world;
+        this.cause = cause;
+    }
+
+    /**
+     * @return the hub world the player is now in
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    public HubTransitionCause getCause() {
+        return cause;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
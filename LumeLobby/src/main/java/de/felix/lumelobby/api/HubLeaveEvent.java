@@ -0,0 +1,46 @@
+package de.felix.lumelobby.api;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+/**
+ * Fired on the main thread when a player leaves the hub area, see {@link HubEnterEvent}.
+ * On {@link HubTransitionCause#WORLD_CHANGE} it is fired before other plugins handle the
+ * {@code PlayerChangedWorldEvent} (the matching {@link HubEnterEvent} after them), so state set up for the new
+ * world is not undone by hub cleanup. On {@link HubTransitionCause#QUIT} the player is still online while listeners run.
+ */
+public final class HubLeaveEvent extends PlayerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final World world;
+    private final HubTransitionCause cause;
+
+    public HubLeaveEvent(Player player, World world, HubTransitionCause cause) {
+        super(player);
+        this.world = world;
+        this.cause = cause;
+    }
+
+    /**
+     * @return the hub world the player left, null if it is no longer loaded
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    public HubTransitionCause getCause() {
+        return cause;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
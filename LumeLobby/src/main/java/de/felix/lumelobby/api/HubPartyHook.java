@@ -0,0 +1,22 @@
+package de.felix.lumelobby.api;
+
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.UUID;
+
+@FunctionalInterface
+public interface HubPartyHook {
+
+    /**
+     * @return the player's party members (the player itself and offline members are ignored), empty if not in a party.
+     */
+    Collection<UUID> partyMembers(Player player);
+
+    /**
+     * Party leaders are let through the hub teleport queue before regular players.
+     */
+    default boolean isPartyLeader(Player player) {
+        return false;
+    }
+}
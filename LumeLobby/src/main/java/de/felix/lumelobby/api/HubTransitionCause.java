@@ -0,0 +1,13 @@
+package de.felix.lumelobby.api;
+
+/**
+ * Why a {@link HubEnterEvent} or {@link HubLeaveEvent} was fired.
+ */
+public enum HubTransitionCause {
+    JOIN,
+    QUIT,
+    /** Teleport, respawn or portal into another world. */
+    WORLD_CHANGE,
+    /** Hub worlds were resolved again (plugin enable, config reload, world load/unload). */
+    RELOAD
+}
@@ -4,6 +4,10 @@ import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public interface LumeLobbyApi {
 
     boolean hubEnabled();
@@ -22,6 +26,22 @@ public interface LumeLobbyApi {
 
     void sendToLobby(Player player);
 
+    /**
+     * Like {@link #sendToHub(Player)}, but reports the outcome once the teleport went through the admission queue.
+     */
+    CompletableFuture<TeleportResult> sendToHubAsync(Player player);
+
+    CompletableFuture<TeleportResult> sendToLobbyAsync(Player player);
+
+    /**
+     * Sends a whole group (e.g. a finished match) in one call instead of one call per player.
+     *
+     * @return one result per non-null player, in iteration order
+     */
+    CompletableFuture<List<TeleportResult>> sendToHub(Collection<? extends Player> players);
+
+    CompletableFuture<List<TeleportResult>> sendToLobby(Collection<? extends Player> players);
+
     void setHubSpawnFrom(Player player);
 
     void clearHubSpawn(Player player);
@@ -44,5 +64,18 @@ public interface LumeLobbyApi {
 
     boolean shouldBypassAutoTeleport(Player player);
 
+    /**
+     * Bypass decisions are cached per player (see {@code autoTeleportBypass.cacheTtlMillis}) and dropped on quit
+     * and world change. Call {@link #invalidateBypass} when a player's state changes in between.
+     */
     void setAutoTeleportBypass(AutoTeleportBypass bypass);
+
+    void invalidateBypass(Player player);
+
+    void invalidateAllBypass();
+
+    /**
+     * With several hub instances, {@link #sendToHub} puts party members into the same instance.
+     */
+    void setHubPartyHook(HubPartyHook hook);
 }
@@ -0,0 +1,32 @@
+package de.felix.lumelobby.api;
+
+import org.bukkit.Location;
+
+import java.util.UUID;
+
+/**
+ * Outcome of a hub/lobby teleport requested through {@link LumeLobbyApi}.
+ *
+ * @param destination where the player was sent, null if no destination was available
+ */
+public record TeleportResult(
+    UUID player,
+    Status status,
+    Location destination
+) {
+    public enum Status {
+        SUCCESS,
+        /** The teleport itself was refused or failed (e.g. cancelled by another plugin, or LumeLobby shut down). */
+        FAILED,
+        /** The player left before the teleport ran. */
+        OFFLINE,
+        /** No hub/lobby spawn was available. */
+        NO_DESTINATION,
+        /** A later request sent the player somewhere else before this one ran. */
+        SUPERSEDED
+    }
+
+    public boolean success() {
+        return status == Status.SUCCESS;
+    }
+}
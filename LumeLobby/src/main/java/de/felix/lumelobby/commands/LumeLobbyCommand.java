@@ -1,7 +1,12 @@
 package de.felix.lumelobby.commands;
 
+import de.felix.lumelobby.AutoTeleportBypassCache;
 import de.felix.lumelobby.LumeLobbyPlugin;
 import de.felix.lumelobby.api.LumeLobbyApi;
+import de.felix.lumelobby.motd.MotdListener;
+import de.felix.lumelobby.ux.HubUxManager;
+import de.felix.lumelobby.world.HubManager;
+import de.felix.lumelobby.world.TeleportAdmissionQueue;
 import de.felix.lumecommands.ui.CommandUi;
 import io.papermc.paper.command.brigadier.BasicCommand;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
@@ -79,7 +84,7 @@ public final class LumeLobbyCommand implements BasicCommand {
         World hub = api.hubWorldOrNull();
         World lobby = api.lobbyWorldOrNull();
 
-        if (hub != null && hub.equals(world)) {
+        if ((hub != null && hub.equals(world)) || isHubInstance(world)) {
             api.setHubSpawnFrom(player);
             ui.success(player, "Hub-Spawn gesetzt.");
             return;
@@ -103,7 +108,7 @@ public final class LumeLobbyCommand implements BasicCommand {
         World hub = api.hubWorldOrNull();
         World lobby = api.lobbyWorldOrNull();
 
-        if (hub != null && hub.equals(world)) {
+        if ((hub != null && hub.equals(world)) || isHubInstance(world)) {
             api.clearHubSpawn(player);
             ui.success(player, "Hub-Spawn entfernt.");
             return;
@@ -127,6 +132,32 @@ public final class LumeLobbyCommand implements BasicCommand {
         ui.info(player, "World: " + worldName);
         ui.info(player, "Hub enabled: " + api.hubEnabled() + " | hubWorld: " + (hub == null ? "null" : hub.getName()));
         ui.info(player, "Lobby enabled: " + api.lobbyEnabled() + " | lobbyWorld: " + (lobby == null ? "null" : lobby.getName()));
+
+        HubManager hubManager = plugin.hubManager();
+        if (hubManager != null && hubManager.hubInstances().size() > 1) {
+            StringBuilder sb = new StringBuilder("Hub instances:");
+            for (World instance : hubManager.hubInstances()) {
+                sb.append(' ').append(instance.getName()).append(' ').append(instance.getPlayerCount()).append('/').append(hubManager.instanceSoftCap());
+            }
+            ui.info(player, sb.toString());
+        }
+
+        TeleportAdmissionQueue queue = plugin.teleportQueue();
+        if (queue != null) ui.info(player, queue.statusLine());
+        AutoTeleportBypassCache bypassCache = plugin.bypassCache();
+        if (bypassCache != null) ui.info(player, bypassCache.statusLine());
+
+        HubUxManager hubUx = plugin.hubUx();
+        if (hubUx != null) {
+            for (String line : hubUx.statusLines()) ui.info(player, line);
+        }
+        MotdListener motd = plugin.motd();
+        if (motd != null) ui.info(player, motd.statusLine());
+    }
+
+    private boolean isHubInstance(World world) {
+        HubManager hubManager = plugin.hubManager();
+        return hubManager != null && hubManager.hubInstances().contains(world);
     }
 
     @Override
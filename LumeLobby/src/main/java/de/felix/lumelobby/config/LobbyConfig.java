@@ -3,14 +3,18 @@ package de.felix.lumelobby.config;
 import lombok.NonNull;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 public record LobbyConfig(
     HubConfig hub,
     LobbyWorldConfig lobby,
     HubUxConfig hubUx,
-    MotdConfig motd
+    MotdConfig motd,
+    TeleportQueueConfig teleportQueue,
+    AutoTeleportBypassConfig autoTeleportBypass
 ) {
     public static LobbyConfig from(@NonNull FileConfiguration cfg) {
         var hub = new HubConfig(
@@ -22,7 +26,10 @@ public record LobbyConfig(
             cfg.getInt("hub.hubY", 120),
             cfg.getBoolean("hub.protection.enabled", true),
             cfg.getBoolean("hub.protection.disableAdvancements", true),
-            cfg.getBoolean("hub.protection.clearMobsOnLoad", true)
+            cfg.getBoolean("hub.protection.clearMobsOnLoad", true),
+            readTemplate(cfg, "hub.template"),
+            Math.max(0, cfg.getInt("hub.prewarmRadius", 2)),
+            readHubInstances(cfg)
         );
 
         var lobby = new LobbyWorldConfig(
@@ -36,7 +43,9 @@ public record LobbyConfig(
             cfg.getInt("lobby.lobbyY", 120),
             cfg.getBoolean("lobby.protection.enabled", true),
             cfg.getBoolean("lobby.protection.disableAdvancements", true),
-            cfg.getBoolean("lobby.protection.clearMobsOnLoad", true)
+            cfg.getBoolean("lobby.protection.clearMobsOnLoad", true),
+            readTemplate(cfg, "lobby.template"),
+            Math.max(0, cfg.getInt("lobby.prewarmRadius", 2))
         );
 
         var hubUx = new HubUxConfig(
@@ -46,14 +55,16 @@ public record LobbyConfig(
                 cfg.getBoolean("hubUx.scoreboard.enabled", true),
                 cfg.getString("hubUx.scoreboard.title", "&bLumeplay"),
                 cfg.getStringList("hubUx.scoreboard.lines"),
-                Math.max(1, cfg.getInt("hubUx.scoreboard.updateTicks", 20))
+                Math.max(1, cfg.getInt("hubUx.scoreboard.updateTicks", 20)),
+                cfg.getString("hubUx.scoreboard.backend", "teams")
             ),
             new BossBarConfig(
                 cfg.getBoolean("hubUx.bossbar.enabled", true),
                 cfg.getString("hubUx.bossbar.title", "&bLumeplay"),
                 cfg.getString("hubUx.bossbar.color", "BLUE"),
                 cfg.getString("hubUx.bossbar.style", "SOLID"),
-                clamp01(cfg.getDouble("hubUx.bossbar.progress", 1.0))
+                clamp01(cfg.getDouble("hubUx.bossbar.progress", 1.0)),
+                readBossBarFrames(cfg, "hubUx.bossbar.frames")
             ),
             new DoubleJumpConfig(
                 cfg.getBoolean("hubUx.doubleJump.enabled", true),
@@ -68,6 +79,7 @@ public record LobbyConfig(
             new CosmeticsConfig(
                 cfg.getBoolean("hubUx.cosmetics.enabled", true),
                 Math.max(1, cfg.getInt("hubUx.cosmetics.updateTicks", 2)),
+                Math.max(1.0, cfg.getDouble("hubUx.cosmetics.viewDistance", 32.0)),
                 new CosmeticsMenuItemConfig(
                     cfg.getBoolean("hubUx.cosmetics.menuItem.enabled", true),
                     cfg.getInt("hubUx.cosmetics.menuItem.slot", 4),
@@ -101,11 +113,28 @@ public record LobbyConfig(
                     clamp01(cfg.getDouble("hubUx.cosmetics.halo.radius", 0.45)),
                     Math.max(3, cfg.getInt("hubUx.cosmetics.halo.points", 12)),
                     Math.max(500L, cfg.getLong("hubUx.cosmetics.halo.periodMs", 2000L))
+                ),
+                new CosmeticsLodConfig(
+                    cfg.getBoolean("hubUx.cosmetics.lod.enabled", true),
+                    Math.max(0.0, cfg.getDouble("hubUx.cosmetics.lod.nearDistance", 12.0)),
+                    Math.max(1, cfg.getInt("hubUx.cosmetics.lod.farStride", 2)),
+                    Math.max(0, cfg.getInt("hubUx.cosmetics.lod.budgets.wings", 72)),
+                    Math.max(0, cfg.getInt("hubUx.cosmetics.lod.budgets.trail", 16)),
+                    Math.max(0, cfg.getInt("hubUx.cosmetics.lod.budgets.halo", 48)),
+                    Math.max(0, cfg.getInt("hubUx.cosmetics.lod.budgets.aura", 24)),
+                    Math.max(0, cfg.getInt("hubUx.cosmetics.lod.budgets.gadget", 8))
+                ),
+                new CosmeticsStoreConfig(
+                    cfg.getString("hubUx.cosmetics.store.type", "binary"),
+                    cfg.getString("hubUx.cosmetics.store.file", ""),
+                    Math.max(1, cfg.getInt("hubUx.cosmetics.store.flushTicks", 10)),
+                    Math.max(0, cfg.getInt("hubUx.cosmetics.store.busyTimeoutMs", 5000))
                 )
             ),
             new LoadoutConfig(
                 cfg.getBoolean("hubUx.loadout.enabled", true),
                 cfg.getBoolean("hubUx.loadout.clearInventory", false),
+                Math.max(1, cfg.getInt("hubUx.loadout.auditTicks", 100)),
                 new CompassConfig(
                     cfg.getBoolean("hubUx.loadout.compass.enabled", true),
                     cfg.getInt("hubUx.loadout.compass.slot", 0),
@@ -120,7 +149,8 @@ public record LobbyConfig(
                     cfg.getStringList("hubUx.loadout.playerToggle.show.lore"),
                     cfg.getString("hubUx.loadout.playerToggle.hide.material", "GRAY_DYE"),
                     cfg.getString("hubUx.loadout.playerToggle.hide.name", "&7&lPlayers: Hidden"),
-                    cfg.getStringList("hubUx.loadout.playerToggle.hide.lore")
+                    cfg.getStringList("hubUx.loadout.playerToggle.hide.lore"),
+                    Math.max(1, cfg.getInt("hubUx.loadout.playerToggle.opsPerTick", 200))
                 )
             ),
             new MenuConfig(
@@ -141,7 +171,49 @@ public record LobbyConfig(
             cfg.getStringList("motd.lines")
         );
 
-        return new LobbyConfig(hub, lobby, hubUx, motd);
+        var teleportQueue = new TeleportQueueConfig(
+            Math.max(1, cfg.getInt("teleportQueue.perTick", 5))
+        );
+
+        var autoTeleportBypass = new AutoTeleportBypassConfig(
+            Math.max(0L, cfg.getLong("autoTeleportBypass.cacheTtlMillis", 1000L))
+        );
+
+        return new LobbyConfig(hub, lobby, hubUx, motd, teleportQueue, autoTeleportBypass);
+    }
+
+    private static HubInstancesConfig readHubInstances(@NonNull FileConfiguration cfg) {
+        int count = Math.max(1, cfg.getInt("hub.instances.count", 1));
+        return new HubInstancesConfig(
+            count,
+            Math.max(count, cfg.getInt("hub.instances.max", count)),
+            Math.max(1, cfg.getInt("hub.instances.softCap", 100)),
+            clamp01(cfg.getDouble("hub.instances.scaleUpAt", 0.9))
+        );
+    }
+
+    private static TemplateConfig readTemplate(@NonNull FileConfiguration cfg, String path) {
+        return new TemplateConfig(
+            cfg.getString(path + ".mode", "import"),
+            cfg.getBoolean(path + ".hardLinks", false)
+        );
+    }
+
+    private static List<BossBarFrameConfig> readBossBarFrames(@NonNull FileConfiguration cfg, String path) {
+        List<BossBarFrameConfig> out = new ArrayList<>();
+        for (Map<?, ?> raw : cfg.getMapList(path)) {
+            Object title = raw.get("title");
+            Object color = raw.get("color");
+            Double progress = raw.get("progress") instanceof Number n ? n.doubleValue() : null;
+            int duration = raw.get("durationTicks") instanceof Number n ? n.intValue() : 40;
+            out.add(new BossBarFrameConfig(
+                title == null ? null : String.valueOf(title),
+                progress == null ? null : clamp01(progress),
+                color == null ? null : String.valueOf(color),
+                Math.max(1, duration)
+            ));
+        }
+        return List.copyOf(out);
     }
 
     private static double clamp01(double value) {
@@ -205,7 +277,30 @@ public record LobbyConfig(
         int hubY,
         boolean protectionEnabled,
         boolean disableAdvancements,
-        boolean clearMobsOnLoad
+        boolean clearMobsOnLoad,
+        TemplateConfig template,
+        int prewarmRadius,
+        HubInstancesConfig instances
+    ) {
+        /**
+         * Instance 1 is {@code worldName} itself, further instances are {@code worldName_2}, {@code worldName_3}, ...
+         */
+        public String instanceWorldName(int index) {
+            return index <= 1 ? worldName : worldName + "_" + index;
+        }
+    }
+
+    /**
+     * @param count     instances created at startup
+     * @param max       upper bound when scaling up
+     * @param softCap   players per instance the routing aims for (never enforced)
+     * @param scaleUpAt fraction of softCap every instance must reach before another one is started
+     */
+    public record HubInstancesConfig(
+        int count,
+        int max,
+        int softCap,
+        double scaleUpAt
     ) {}
 
     public record LobbyWorldConfig(
@@ -219,9 +314,23 @@ public record LobbyConfig(
         int lobbyY,
         boolean protectionEnabled,
         boolean disableAdvancements,
-        boolean clearMobsOnLoad
+        boolean clearMobsOnLoad,
+        TemplateConfig template,
+        int prewarmRadius
     ) {}
 
+    /**
+     * @param mode "import" copies the template only into a missing world folder, "sync" updates changed files on every start
+     */
+    public record TemplateConfig(
+        String mode,
+        boolean hardLinks
+    ) {
+        public boolean sync() {
+            return mode != null && "sync".equalsIgnoreCase(mode.trim());
+        }
+    }
+
     public record HubUxConfig(
         boolean enabled,
         List<String> worlds,
@@ -237,7 +346,8 @@ public record LobbyConfig(
         boolean enabled,
         String title,
         List<String> lines,
-        int updateTicks
+        int updateTicks,
+        String backend
     ) {}
 
     public record BossBarConfig(
@@ -245,7 +355,18 @@ public record LobbyConfig(
         String title,
         String color,
         String style,
-        double progress
+        double progress,
+        List<BossBarFrameConfig> frames
+    ) {}
+
+    /**
+     * Null title/progress/color fall back to the bar's static values.
+     */
+    public record BossBarFrameConfig(
+        String title,
+        Double progress,
+        String color,
+        int durationTicks
     ) {}
 
     public record DoubleJumpConfig(
@@ -262,11 +383,14 @@ public record LobbyConfig(
     public record CosmeticsConfig(
         boolean enabled,
         int updateTicks,
+        double viewDistance,
         CosmeticsMenuItemConfig menuItem,
         CosmeticsGadgetConfig gadgetItem,
         CosmeticsParticlesConfig particles,
         WingsConfig wings,
-        HaloConfig halo
+        HaloConfig halo,
+        CosmeticsLodConfig lod,
+        CosmeticsStoreConfig store
     ) {
         public String normalizeParticle(String raw, String fallback) {
             String s = raw == null ? "" : raw.trim();
@@ -314,9 +438,28 @@ public record LobbyConfig(
         long periodMs
     ) {}
 
+    public record CosmeticsLodConfig(
+        boolean enabled,
+        double nearDistance,
+        int farStride,
+        int wingsBudget,
+        int trailBudget,
+        int haloBudget,
+        int auraBudget,
+        int gadgetBudget
+    ) {}
+
+    public record CosmeticsStoreConfig(
+        String type,
+        String file,
+        int flushTicks,
+        int busyTimeoutMs
+    ) {}
+
     public record LoadoutConfig(
         boolean enabled,
         boolean clearInventory,
+        int auditTicks,
         CompassConfig compass,
         PlayerVisibilityToggleConfig playerToggle
     ) {}
@@ -336,7 +479,8 @@ public record LobbyConfig(
         List<String> showLore,
         String hideMaterial,
         String hideName,
-        List<String> hideLore
+        List<String> hideLore,
+        int opsPerTick
     ) {}
 
     public record MenuConfig(
@@ -358,6 +502,17 @@ public record LobbyConfig(
         List<String> lines
     ) {}
 
+    /**
+     * @param perTick hub/lobby teleports released per tick
+     */
+    public record TeleportQueueConfig(
+        int perTick
+    ) {}
+
+    public record AutoTeleportBypassConfig(
+        long cacheTtlMillis
+    ) {}
+
     public record Spawn(
         Double x,
         Double y,
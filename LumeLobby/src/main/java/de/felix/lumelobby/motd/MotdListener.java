@@ -1,7 +1,6 @@
 package de.felix.lumelobby.motd;
 
 import de.felix.lumelobby.config.LobbyConfig;
-import lombok.RequiredArgsConstructor;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
@@ -10,26 +9,97 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.server.ServerListPingEvent;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
-@RequiredArgsConstructor
+/**
+ * Server list MOTD. The configured lines are colorized and split into literal and %online%/%max% parts once;
+ * the rendered text and component are cached for the current (online, max) pair, so a flood of pings with an
+ * unchanged player count only reads that cache. Pings may arrive off the main thread.
+ */
 public final class MotdListener implements Listener {
 
+    private static final long RATE_WINDOW_NANOS = 10_000_000_000L;
+
     private final LobbyConfig config;
+    private final Object[] segments;
+    private final MethodHandle motdHandle;
+    private volatile Rendered cached;
+
+    private final LongAdder pings = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final LongAdder windowPings = new LongAdder();
+    private volatile double pingsPerSecond;
+
+    public MotdListener(LobbyConfig config) {
+        this.config = config;
+        this.segments = compile(config.motd() == null ? null : config.motd().lines());
+        this.motdHandle = findMotdHandle();
+    }
 
     @EventHandler
     public void onPing(ServerListPingEvent event) {
         if (config.motd() == null || !config.motd().enabled()) return;
+        if (segments.length == 0) return;
+        countPing();
+
+        Rendered rendered = render(Bukkit.getOnlinePlayers().size(), Bukkit.getMaxPlayers());
+        if (rendered.text().isBlank()) return;
+
+        if (motdHandle != null) {
+            try {
+                motdHandle.invoke(event, rendered.component());
+                return;
+            } catch (Throwable ignored) {
+            }
+        }
+        event.setMotd(rendered.text());
+    }
+
+    public String statusLine() {
+        long total = pings.sum();
+        long hit = hits.sum();
+        String ratio = total == 0 ? "0.0" : String.format(Locale.ROOT, "%.1f", hit * 100.0 / total);
+        return "MOTD pings: " + total + " (" + String.format(Locale.ROOT, "%.1f", pingsPerSecond) + "/s) | cache hits " + ratio + "%";
+    }
 
-        String text = renderMotd();
-        if (text == null || text.isBlank()) return;
+    private Rendered render(int online, int max) {
+        Rendered current = cached;
+        if (current != null && current.online() == online && current.max() == max) {
+            hits.increment();
+            return current;
+        }
 
-        trySetAdventureMotd(event, text);
-        event.setMotd(text);
+        StringBuilder sb = new StringBuilder(64);
+        for (Object segment : segments) {
+            if (segment instanceof String s) sb.append(s);
+            else sb.append(segment == Token.ONLINE ? online : max);
+        }
+        String text = sb.toString();
+        Rendered next = new Rendered(online, max, text, LegacyComponentSerializer.legacySection().deserialize(text));
+        cached = next;
+        return next;
     }
 
-    private String renderMotd() {
-        List<String> lines = config.motd().lines();
+    private void countPing() {
+        pings.increment();
+        windowPings.increment();
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        long elapsed = now - start;
+        if (elapsed >= RATE_WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            pingsPerSecond = windowPings.sumThenReset() * 1_000_000_000.0 / elapsed;
+        }
+    }
+
+    private static Object[] compile(List<String> lines) {
         if (lines == null || lines.isEmpty()) {
             lines = List.of(
                 "&bLumeplay.net &7| &fSkyWars",
@@ -37,21 +107,46 @@ public final class MotdListener implements Listener {
             );
         }
 
-        String joined = String.join("\n", lines);
-        joined = joined.replace("%online%", String.valueOf(Bukkit.getOnlinePlayers().size()));
-        joined = joined.replace("%max%", String.valueOf(Bukkit.getMaxPlayers()));
-        return colorize(joined);
+        String text = colorize(String.join("\n", lines));
+        List<Object> out = new ArrayList<>();
+        int from = 0;
+        while (true) {
+            int online = text.indexOf("%online%", from);
+            int max = text.indexOf("%max%", from);
+            int next = online < 0 ? max : (max < 0 ? online : Math.min(online, max));
+            if (next < 0) break;
+            if (next > from) out.add(text.substring(from, next));
+            Token token = next == online ? Token.ONLINE : Token.MAX;
+            out.add(token);
+            from = next + token.placeholder.length();
+        }
+        if (from < text.length()) out.add(text.substring(from));
+        return out.toArray();
+    }
+
+    private static MethodHandle findMotdHandle() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(ServerListPingEvent.class, "motd", MethodType.methodType(void.class, Component.class));
+        } catch (Throwable ignored) {
+            return null;
+        }
     }
 
     private static String colorize(String text) {
         return ChatColor.translateAlternateColorCodes('&', text == null ? "" : text);
     }
 
-    private static void trySetAdventureMotd(ServerListPingEvent event, String legacy) {
-        try {
-            Component c = LegacyComponentSerializer.legacySection().deserialize(legacy);
-            event.getClass().getMethod("motd", Component.class).invoke(event, c);
-        } catch (Throwable ignored) {
+    private enum Token {
+        ONLINE("%online%"),
+        MAX("%max%");
+
+        private final String placeholder;
+
+        Token(String placeholder) {
+            this.placeholder = placeholder;
         }
     }
+
+    private record Rendered(int online, int max, String text, Component component) {
+    }
 }
@@ -0,0 +1,353 @@
+package de.felix.lumelobby.ux;
+
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the cosmetic particles of one tick and sends them per viewer instead of broadcasting them.
+ * A wearer's particles only go to players within the view distance who can currently see the wearer
+ * (players that hid others with the visibility toggle get nothing).
+ * <p>
+ * With level of detail enabled every viewer has a particle budget per cosmetic kind and tick. The viewer's own
+ * cosmetics are served first, then nearby wearers, then distant wearers (thinned by {@code farStride}).
+ * When a group doesn't fit the remaining budget its points are thinned evenly instead of dropping whole wearers.
+ * <p>
+ * Runs are bucketed into square cells of (at least) the view distance once per flush, so each viewer only looks at
+ * the runs in its own and the eight surrounding cells instead of every run in the world.
+ */
+final class CosmeticParticleDispatcher {
+
+    enum Kind {
+        WINGS,
+        TRAIL,
+        HALO,
+        AURA,
+        GADGET
+    }
+
+    record Lod(
+        boolean enabled,
+        double nearDistance,
+        int farStride,
+        int[] budgets
+    ) {
+        int budget(int kind) {
+            return budgets[kind];
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 256;
+    // Far above a normal tick; only reached if nothing flushes (e.g. gadget use after the UX tick stopped).
+    private static final int MAX_PENDING = 1 << 16;
+    private static final int KINDS = Kind.values().length;
+    private static final byte SKIP = 0;
+    private static final byte OWN = 1;
+    private static final byte NEAR = 2;
+    private static final byte FAR = 3;
+    private static final long MIN_CELL_SIZE = 16;
+
+    private Player[] wearers = new Player[INITIAL_CAPACITY];
+    private Particle[] particles = new Particle[INITIAL_CAPACITY];
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private double[] xs = new double[INITIAL_CAPACITY];
+    private double[] ys = new double[INITIAL_CAPACITY];
+    private double[] zs = new double[INITIAL_CAPACITY];
+    private int[] counts = new int[INITIAL_CAPACITY];
+    private double[] offsetXs = new double[INITIAL_CAPACITY];
+    private double[] offsetYs = new double[INITIAL_CAPACITY];
+    private double[] offsetZs = new double[INITIAL_CAPACITY];
+    private double[] extras = new double[INITIAL_CAPACITY];
+    private int size;
+    private boolean closed;
+
+    // Runs: contiguous emissions of one wearer and kind.
+    private int[] runStarts = new int[64];
+    private int[] runEnds = new int[64];
+    private World[] runWorlds = new World[64];
+    private byte[] runClasses = new byte[64];
+    private int runCount;
+
+    private final int[] ownPoints = new int[KINDS];
+    private final int[] nearPoints = new int[KINDS];
+    private final int[] farPoints = new int[KINDS];
+    private final int[] nearStrides = new int[KINDS];
+    private final int[] farStrides = new int[KINDS];
+    private final int[] ownStrides = new int[KINDS];
+    private final int[] sent = new int[KINDS];
+
+    private final Location scratch = new Location(null, 0, 0, 0);
+    private final Map<World, List<Player>> viewersByWorld = new IdentityHashMap<>();
+    private final Map<World, Map<Long, Cell>> cells = new IdentityHashMap<>();
+    private int[] candidates = new int[64];
+
+    void add(Player wearer, Kind kind, Particle particle, double x, double y, double z, int count, double offsetX, double offsetY, double offsetZ, double extra) {
+        if (wearer == null || kind == null || particle == null) return;
+        if (closed || size >= MAX_PENDING) return;
+        if (size == wearers.length) grow();
+        int i = size++;
+        wearers[i] = wearer;
+        kinds[i] = (byte) kind.ordinal();
+        particles[i] = particle;
+        xs[i] = x;
+        ys[i] = y;
+        zs[i] = z;
+        counts[i] = count;
+        offsetXs[i] = offsetX;
+        offsetYs[i] = offsetY;
+        offsetZs[i] = offsetZ;
+        extras[i] = extra;
+    }
+
+    /**
+     * Sends everything collected since the last flush. Visibility and distance are checked once per
+     * (run, viewer) pair rather than per particle.
+     */
+    void flush(double viewDistance, Lod lod) {
+        if (size == 0) return;
+        try {
+            buildRuns();
+            long cellSize = Math.max(MIN_CELL_SIZE, (long) Math.ceil(viewDistance));
+            bucketRuns(cellSize);
+            List<World> worlds = new ArrayList<>(2);
+            for (int r = 0; r < runCount; r++) {
+                World world = runWorlds[r];
+                if (world != null && !viewersByWorld.containsKey(world)) {
+                    viewersByWorld.put(world, world.getPlayers());
+                    worlds.add(world);
+                }
+            }
+
+            double maxDistSq = viewDistance * viewDistance;
+            for (World world : worlds) {
+                for (Player viewer : viewersByWorld.get(world)) {
+                    dispatchTo(viewer, world, maxDistSq, cellSize, lod);
+                }
+            }
+        } finally {
+            clear();
+        }
+    }
+
+    /**
+     * Drops everything pending and ignores further particles; the UX tick that flushes them is gone.
+     */
+    void close() {
+        clear();
+        closed = true;
+    }
+
+    void clear() {
+        Arrays.fill(wearers, 0, size, null);
+        Arrays.fill(particles, 0, size, null);
+        Arrays.fill(runWorlds, 0, runCount, null);
+        size = 0;
+        runCount = 0;
+        viewersByWorld.clear();
+        cells.clear();
+    }
+
+    private void buildRuns() {
+        runCount = 0;
+        int start = 0;
+        while (start < size) {
+            Player wearer = wearers[start];
+            byte kind = kinds[start];
+            int end = start + 1;
+            while (end < size && wearers[end] == wearer && kinds[end] == kind) end++;
+
+            if (runCount == runStarts.length) growRuns();
+            runStarts[runCount] = start;
+            runEnds[runCount] = end;
+            runWorlds[runCount] = wearer.isOnline() ? wearer.getWorld() : null;
+            runCount++;
+            start = end;
+        }
+    }
+
+    private void bucketRuns(long cellSize) {
+        for (int r = 0; r < runCount; r++) {
+            World world = runWorlds[r];
+            if (world == null) continue;
+            int start = runStarts[r];
+            long key = cellKey(cellOf(xs[start], cellSize), cellOf(zs[start], cellSize));
+            cells.computeIfAbsent(world, w -> new HashMap<>()).computeIfAbsent(key, k -> new Cell()).add(r);
+        }
+    }
+
+    /**
+     * Collects the runs of the 3x3 cells around the viewer, in run order.
+     *
+     * @return number of entries in {@link #candidates}
+     */
+    private int gatherCandidates(World world, double vx, double vz, long cellSize) {
+        Map<Long, Cell> worldCells = cells.get(world);
+        if (worldCells == null) return 0;
+        if (candidates.length < runCount) candidates = new int[runStarts.length];
+        long cx = cellOf(vx, cellSize);
+        long cz = cellOf(vz, cellSize);
+        int count = 0;
+        for (long dx = -1; dx <= 1; dx++) {
+            for (long dz = -1; dz <= 1; dz++) {
+                Cell cell = worldCells.get(cellKey(cx + dx, cz + dz));
+                if (cell == null) continue;
+                System.arraycopy(cell.runs, 0, candidates, count, cell.size);
+                count += cell.size;
+            }
+        }
+        // Budgets are handed out in run order, like before the bucketing.
+        Arrays.sort(candidates, 0, count);
+        return count;
+    }
+
+    private static long cellOf(double coordinate, long cellSize) {
+        return Math.floorDiv((long) Math.floor(coordinate), cellSize);
+    }
+
+    private static long cellKey(long cx, long cz) {
+        return (cx << 32) ^ (cz & 0xFFFFFFFFL);
+    }
+
+    private void dispatchTo(Player viewer, World world, double maxDistSq, long cellSize, Lod lod) {
+        Location at = viewer.getLocation(scratch);
+        double vx = at.getX();
+        double vy = at.getY();
+        double vz = at.getZ();
+        int candidateCount = gatherCandidates(world, vx, vz, cellSize);
+        if (candidateCount == 0) return;
+        double nearSq = lod.nearDistance() * lod.nearDistance();
+        int farStride = lod.enabled() ? Math.max(1, lod.farStride()) : 1;
+
+        Arrays.fill(ownPoints, 0);
+        Arrays.fill(nearPoints, 0);
+        Arrays.fill(farPoints, 0);
+
+        Player lastWearer = null;
+        boolean lastVisible = false;
+        for (int c = 0; c < candidateCount; c++) {
+            int r = candidates[c];
+            runClasses[r] = SKIP;
+
+            int start = runStarts[r];
+            int points = runEnds[r] - start;
+            int kind = kinds[start];
+            Player wearer = wearers[start];
+            if (wearer == viewer) {
+                runClasses[r] = OWN;
+                ownPoints[kind] += points;
+                continue;
+            }
+
+            // Distance first, canSee() only for runs that are in range at all.
+            double dx = xs[start] - vx;
+            double dy = ys[start] - vy;
+            double dz = zs[start] - vz;
+            double distSq = dx * dx + dy * dy + dz * dz;
+            if (distSq > maxDistSq) continue;
+
+            if (wearer != lastWearer) {
+                lastWearer = wearer;
+                lastVisible = viewer.canSee(wearer);
+            }
+            if (!lastVisible) continue;
+
+            if (!lod.enabled() || distSq <= nearSq) {
+                runClasses[r] = NEAR;
+                nearPoints[kind] += points;
+            } else {
+                runClasses[r] = FAR;
+                farPoints[kind] += (points + farStride - 1) / farStride;
+            }
+        }
+
+        for (int kind = 0; kind < KINDS; kind++) {
+            sent[kind] = 0;
+            if (!lod.enabled()) {
+                ownStrides[kind] = 1;
+                nearStrides[kind] = 1;
+                farStrides[kind] = 1;
+                continue;
+            }
+            int budget = Math.max(0, lod.budget(kind));
+            ownStrides[kind] = strideFor(ownPoints[kind], budget);
+            int remaining = budget - Math.min(budget, ownPoints[kind]);
+            nearStrides[kind] = strideFor(nearPoints[kind], remaining);
+            remaining -= Math.min(remaining, nearPoints[kind]);
+            farStrides[kind] = farStride * strideFor(farPoints[kind], remaining);
+        }
+
+        for (int c = 0; c < candidateCount; c++) {
+            int r = candidates[c];
+            byte cls = runClasses[r];
+            if (cls == SKIP) continue;
+            int start = runStarts[r];
+            int kind = kinds[start];
+            int stride = switch (cls) {
+                case OWN -> ownStrides[kind];
+                case NEAR -> nearStrides[kind];
+                default -> farStrides[kind];
+            };
+            if (stride <= 0) continue;
+
+            for (int i = start; i < runEnds[r]; i += stride) {
+                if (lod.enabled() && sent[kind] >= lod.budget(kind)) break;
+                viewer.spawnParticle(particles[i], xs[i], ys[i], zs[i], counts[i], offsetXs[i], offsetYs[i], offsetZs[i], extras[i]);
+                sent[kind]++;
+            }
+        }
+    }
+
+    /**
+     * @return 1 if all points fit, a thinning stride if they don't, or 0 if there is no budget left at all.
+     */
+    private static int strideFor(int points, int budget) {
+        if (points <= 0) return 1;
+        if (budget <= 0) return 0;
+        if (points <= budget) return 1;
+        return (points + budget - 1) / budget;
+    }
+
+    private void grow() {
+        int capacity = wearers.length * 2;
+        wearers = Arrays.copyOf(wearers, capacity);
+        particles = Arrays.copyOf(particles, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        zs = Arrays.copyOf(zs, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        offsetXs = Arrays.copyOf(offsetXs, capacity);
+        offsetYs = Arrays.copyOf(offsetYs, capacity);
+        offsetZs = Arrays.copyOf(offsetZs, capacity);
+        extras = Arrays.copyOf(extras, capacity);
+    }
+
+    private void growRuns() {
+        int capacity = runStarts.length * 2;
+        runStarts = Arrays.copyOf(runStarts, capacity);
+        runEnds = Arrays.copyOf(runEnds, capacity);
+        runWorlds = Arrays.copyOf(runWorlds, capacity);
+        runClasses = Arrays.copyOf(runClasses, capacity);
+    }
+
+    /**
+     * Indices of the runs that start in one cell.
+     */
+    private static final class Cell {
+        private int[] runs = new int[8];
+        private int size;
+
+        private void add(int run) {
+            if (size == runs.length) runs = Arrays.copyOf(runs, size * 2);
+            runs[size++] = run;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package de.felix.lumelobby.ux;
+
+import de.felix.lumelobby.config.LobbyConfig;
+
+/**
+ * Halo, aura and wing geometry precomputed at config load into flat offset tables.
+ * The tick path only picks a row by animation phase / yaw bucket and adds the offsets to the player's position.
+ */
+final class CosmeticShapes {
+
+    static final int HALO_PHASES = 64;
+    static final int AURA_STEPS = 25;
+    static final int AURA_POINTS = 3;
+    static final int YAW_BUCKETS = 64;
+    static final int FLAP_PHASES = 32;
+
+    private static final double HALO_Y = 2.15;
+    private static final double AURA_Y = 0.9;
+    private static final double AURA_RADIUS = 0.65;
+    private static final double WING_Y = 1.25;
+    private static final double WING_BACK = 0.25;
+
+    private final int haloPoints;
+    private final long haloPeriodMs;
+    private final double[] halo;
+
+    private final double[] aura;
+
+    private final int wingPoints;
+    private final long flapPeriodMs;
+    private final double[] wings;
+    private final double[] wingForward;
+    private final double[] flap;
+
+    private CosmeticShapes(int haloPoints, long haloPeriodMs, double[] halo, double[] aura, int wingPoints, long flapPeriodMs, double[] wings, double[] wingForward, double[] flap) {
+        this.haloPoints = haloPoints;
+        this.haloPeriodMs = haloPeriodMs;
+        this.halo = halo;
+        this.aura = aura;
+        this.wingPoints = wingPoints;
+        this.flapPeriodMs = flapPeriodMs;
+        this.wings = wings;
+        this.wingForward = wingForward;
+        this.flap = flap;
+    }
+
+    static CosmeticShapes from(LobbyConfig.CosmeticsConfig cfg) {
+        var haloCfg = cfg == null ? null : cfg.halo();
+        double radius = haloCfg == null ? 0.45 : haloCfg.radius();
+        int haloPoints = haloCfg == null ? 12 : Math.max(3, haloCfg.points());
+        long haloPeriodMs = haloCfg == null ? 2000L : Math.max(500L, haloCfg.periodMs());
+
+        // halo[phase][point] = (x, y, z)
+        double[] halo = new double[HALO_PHASES * haloPoints * 3];
+        for (int phase = 0; phase < HALO_PHASES; phase++) {
+            double rot = phase / (double) HALO_PHASES * Math.PI * 2;
+            for (int i = 0; i < haloPoints; i++) {
+                double a = rot + (Math.PI * 2 * i / (double) haloPoints);
+                int o = (phase * haloPoints + i) * 3;
+                halo[o] = Math.cos(a) * radius;
+                halo[o + 1] = HALO_Y;
+                halo[o + 2] = Math.sin(a) * radius;
+            }
+        }
+
+        // aura[step][point] = (x, y, z); one step is ~0.25 rad like the old per-tick phase increment.
+        double[] aura = new double[AURA_STEPS * AURA_POINTS * 3];
+        for (int step = 0; step < AURA_STEPS; step++) {
+            double p = step / (double) AURA_STEPS * Math.PI * 2;
+            for (int i = 0; i < AURA_POINTS; i++) {
+                double a = p + (i * (Math.PI * 2 / AURA_POINTS));
+                int o = (step * AURA_POINTS + i) * 3;
+                aura[o] = Math.cos(a) * AURA_RADIUS;
+                aura[o + 1] = AURA_Y + 0.15 * i;
+                aura[o + 2] = Math.sin(a) * AURA_RADIUS;
+            }
+        }
+
+        var wingsCfg = cfg == null ? null : cfg.wings();
+        int wingPoints = wingsCfg == null ? 9 : Math.max(1, wingsCfg.points());
+        long flapPeriodMs = wingsCfg == null ? 1500L : Math.max(200L, wingsCfg.flapPeriodMs());
+        double flapStrength = wingsCfg == null ? 0.08 : wingsCfg.flapStrength();
+
+        // wings[yaw][side * points + point] = (x, y, z) without flap; flap moves every point along -forward.
+        double[] wings = new double[YAW_BUCKETS * 2 * wingPoints * 3];
+        double[] wingForward = new double[YAW_BUCKETS * 2];
+        for (int bucket = 0; bucket < YAW_BUCKETS; bucket++) {
+            double rad = Math.toRadians(bucket * (360.0 / YAW_BUCKETS));
+            double fx = -Math.sin(rad);
+            double fz = Math.cos(rad);
+            double rx = fz;
+            double rz = -fx;
+            wingForward[bucket * 2] = fx;
+            wingForward[bucket * 2 + 1] = fz;
+
+            for (int s = 0; s < 2; s++) {
+                int side = s == 0 ? 1 : -1;
+                for (int i = 0; i < wingPoints; i++) {
+                    double x = 0.18 + i * 0.10;
+                    double y = i * 0.12;
+                    double z = WING_BACK + i * 0.03;
+                    int o = ((bucket * 2 + s) * wingPoints + i) * 3;
+                    wings[o] = rx * side * x - fx * z;
+                    wings[o + 1] = WING_Y + y;
+                    wings[o + 2] = rz * side * x - fz * z;
+                }
+            }
+        }
+
+        double[] flap = new double[FLAP_PHASES];
+        for (int phase = 0; phase < FLAP_PHASES; phase++) {
+            flap[phase] = Math.sin(phase / (double) FLAP_PHASES * Math.PI * 2) * flapStrength;
+        }
+
+        return new CosmeticShapes(haloPoints, haloPeriodMs, halo, aura, wingPoints, flapPeriodMs, wings, wingForward, flap);
+    }
+
+    int haloPoints() {
+        return haloPoints;
+    }
+
+    double[] halo() {
+        return halo;
+    }
+
+    /**
+     * @return offset of the first halo point (x, y, z triples) for the given time.
+     */
+    int haloRow(long nowMs) {
+        int phase = (int) ((nowMs % haloPeriodMs) * HALO_PHASES / haloPeriodMs);
+        return phase * haloPoints * 3;
+    }
+
+    double[] aura() {
+        return aura;
+    }
+
+    int auraRow(int step) {
+        return Math.floorMod(step, AURA_STEPS) * AURA_POINTS * 3;
+    }
+
+    int wingPoints() {
+        return wingPoints;
+    }
+
+    double[] wings() {
+        return wings;
+    }
+
+    int yawBucket(float yaw) {
+        return Math.floorMod(Math.round(yaw * (YAW_BUCKETS / 360.0f)), YAW_BUCKETS);
+    }
+
+    /**
+     * @return offset of the first point of both wings (right wing, then left wing) for the yaw bucket.
+     */
+    int wingRow(int yawBucket) {
+        return yawBucket * 2 * wingPoints * 3;
+    }
+
+    double forwardX(int yawBucket) {
+        return wingForward[yawBucket * 2];
+    }
+
+    double forwardZ(int yawBucket) {
+        return wingForward[yawBucket * 2 + 1];
+    }
+
+    double flap(long nowMs) {
+        return flap[(int) ((nowMs % flapPeriodMs) * FLAP_PHASES / flapPeriodMs)];
+    }
+}
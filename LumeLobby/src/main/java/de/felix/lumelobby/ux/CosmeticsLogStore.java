@@ -0,0 +1,537 @@
+package de.felix.lumelobby.ux;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Cosmetic preferences as one bitmask per player, stored in two files:
+ * <ul>
+ *     <li>{@code cosmetics.dat}: compacted snapshot, sorted by UUID, replaced atomically and checksummed.</li>
+ *     <li>{@code cosmetics.log}: append-only records (uuid, mask, crc32). A toggle costs one 21-byte append.</li>
+ * </ul>
+ * Log records hold the full mask, so replaying them on top of a snapshot is idempotent. A torn record at the
+ * end of the log (crash during append) fails its checksum and is cut off on open.
+ * <p>
+ * Only the log is held in memory ({@code tail}); snapshot entries are looked up per player by binary search.
+ * Lookups and file access may block and must not run on the main thread; {@link #append} never blocks.
+ */
+final class CosmeticsLogStore implements CosmeticsStore {
+
+    static final String SNAPSHOT_FILE = "cosmetics.dat";
+    static final String LOG_FILE = "cosmetics.log";
+
+    private static final int MAGIC = 0x4C4C4353; // "LLCS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 4;
+    private static final int SNAPSHOT_RECORD_BYTES = 8 + 8 + 1;
+    private static final int LOG_RECORD_BYTES = SNAPSHOT_RECORD_BYTES + 4;
+    private static final int MIN_COMPACT_RECORDS = 1024;
+    private static final Comparator<UUID> ORDER = Comparator
+        .comparingLong(UUID::getMostSignificantBits)
+        .thenComparingLong(UUID::getLeastSignificantBits);
+
+    private final Path snapshotFile;
+    private final Path logFile;
+    private final Logger logger;
+    private final Object lock = new Object();
+    private final ConcurrentLinkedQueue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final Map<UUID, Integer> tail = new ConcurrentHashMap<>();
+
+    private FileChannel log;
+    private FileChannel snapshot;
+    private int snapshotRecords;
+    private long logRecords;
+    private boolean opened;
+    private boolean snapshotBroken;
+    private boolean closed;
+    private boolean compacting;
+    // Bumped whenever a new snapshot is installed, so a compaction notices it was overtaken.
+    private long generation;
+
+    CosmeticsLogStore(Path folder, Logger logger) {
+        this.snapshotFile = folder.resolve(SNAPSHOT_FILE);
+        this.logFile = folder.resolve(LOG_FILE);
+        this.logger = logger;
+    }
+
+    @Override
+    public String name() {
+        return "binary";
+    }
+
+    @Override
+    public boolean exists() {
+        return Files.exists(snapshotFile) || Files.exists(logFile);
+    }
+
+    /**
+     * Verifies the snapshot and replays the log into memory. The first lookup calls this as well.
+     */
+    @Override
+    public void open() throws IOException {
+        synchronized (lock) {
+            if (opened || closed) return;
+            opened = true;
+            try {
+                snapshotRecords = verifySnapshot();
+            } catch (IOException e) {
+                // Keep the broken file for inspection and never compact over it.
+                snapshotBroken = true;
+                snapshotRecords = 0;
+                logger.warning("[Cosmetics] " + e.getMessage() + "; only " + LOG_FILE + " is used until it is fixed.");
+            }
+            logRecords = replayLog();
+        }
+    }
+
+    @Override
+    public int load(UUID id) throws IOException {
+        if (id == null) return 0;
+        Integer fromTail = tail.get(id);
+        if (fromTail != null) return fromTail;
+        synchronized (lock) {
+            open();
+            if (closed) return 0;
+            fromTail = tail.get(id);
+            if (fromTail != null) return fromTail;
+            return searchSnapshot(id);
+        }
+    }
+
+    @Override
+    public void append(UUID id, int mask) {
+        if (id == null) return;
+        tail.put(id, mask & 0xFF);
+        pending.add(new Pending(id, (byte) mask));
+    }
+
+    @Override
+    public void flush() throws IOException {
+        synchronized (lock) {
+            if (closed || pending.isEmpty()) return;
+            open();
+            FileChannel channel = openLog();
+
+            List<Pending> batch = new ArrayList<>();
+            for (Pending p; (p = pending.poll()) != null; ) batch.add(p);
+
+            ByteBuffer buf = ByteBuffer.allocate(batch.size() * LOG_RECORD_BYTES);
+            CRC32 crc = new CRC32();
+            for (Pending p : batch) {
+                int start = buf.position();
+                buf.putLong(p.id().getMostSignificantBits());
+                buf.putLong(p.id().getLeastSignificantBits());
+                buf.put(p.mask());
+                crc.reset();
+                crc.update(buf.array(), start, SNAPSHOT_RECORD_BYTES);
+                buf.putInt((int) crc.getValue());
+            }
+            buf.flip();
+            while (buf.hasRemaining()) channel.write(buf);
+            channel.force(false);
+            logRecords += batch.size();
+        }
+    }
+
+    /**
+     * Folds the log into a new snapshot once it has grown large enough compared to the snapshot.
+     */
+    @Override
+    public boolean compactIfNeeded() throws IOException {
+        synchronized (lock) {
+            if (closed || !opened || snapshotBroken || compacting) return false;
+            if (logRecords < Math.max(MIN_COMPACT_RECORDS, snapshotRecords / 4)) return false;
+        }
+        return compact();
+    }
+
+    /**
+     * Merges the old snapshot with the sorted log into a new snapshot; memory stays bounded by the log size.
+     * The merge streams the old snapshot outside the lock, so lookups keep working meanwhile; only freezing the
+     * log and swapping the files in happen under it.
+     *
+     * @return false if the store was closed or replaced in between
+     */
+    boolean compact() throws IOException {
+        TreeMap<UUID, Integer> frozen = new TreeMap<>(ORDER);
+        int records;
+        long frozenLogRecords;
+        long frozenGeneration;
+        synchronized (lock) {
+            if (closed || snapshotBroken || compacting) return false;
+            open();
+            flush();
+            frozen.putAll(tail);
+            records = snapshotRecords;
+            frozenLogRecords = logRecords;
+            frozenGeneration = generation;
+            compacting = true;
+        }
+
+        // Not the ".tmp" name: replaceAll() may write that one under the lock while this merge runs.
+        Path tmp = snapshotFile.resolveSibling(SNAPSHOT_FILE + ".compact");
+        try {
+            int written;
+            try (SnapshotWriter out = new SnapshotWriter(tmp)) {
+                Iterator<Map.Entry<UUID, Integer>> changes = frozen.entrySet().iterator();
+                Map.Entry<UUID, Integer> change = changes.hasNext() ? changes.next() : null;
+
+                try (DataInputStream in = openSnapshotStream(records)) {
+                    for (int i = 0; i < records; i++) {
+                        UUID id = new UUID(in.readLong(), in.readLong());
+                        int mask = in.readUnsignedByte();
+                        while (change != null && ORDER.compare(change.getKey(), id) < 0) {
+                            out.write(change.getKey(), change.getValue());
+                            change = changes.hasNext() ? changes.next() : null;
+                        }
+                        if (change != null && change.getKey().equals(id)) {
+                            out.write(id, change.getValue());
+                            change = changes.hasNext() ? changes.next() : null;
+                        } else {
+                            out.write(id, mask);
+                        }
+                    }
+                }
+                while (change != null) {
+                    out.write(change.getKey(), change.getValue());
+                    change = changes.hasNext() ? changes.next() : null;
+                }
+                written = out.finish();
+            }
+
+            synchronized (lock) {
+                if (closed || generation != frozenGeneration) {
+                    Files.deleteIfExists(tmp);
+                    return false;
+                }
+                installSnapshot(tmp, written);
+                // Keep what was logged after the freeze; it is not part of the new snapshot.
+                flush();
+                keepLogAfter(frozenLogRecords);
+
+                // Masks appended while compacting stay in the tail (and in the log).
+                for (Map.Entry<UUID, Integer> e : frozen.entrySet()) {
+                    tail.remove(e.getKey(), e.getValue());
+                }
+                return true;
+            }
+        } finally {
+            synchronized (lock) {
+                compacting = false;
+            }
+        }
+    }
+
+    /**
+     * Every stored non-zero mask (snapshot plus log), for importing into another store type.
+     */
+    Map<UUID, Integer> loadAll() throws IOException {
+        synchronized (lock) {
+            open();
+            Map<UUID, Integer> out = new HashMap<>();
+            if (!snapshotBroken) {
+                try (DataInputStream in = openSnapshotStream(snapshotRecords)) {
+                    for (int i = 0; i < snapshotRecords; i++) {
+                        out.put(new UUID(in.readLong(), in.readLong()), in.readUnsignedByte());
+                    }
+                }
+            }
+            out.putAll(tail);
+            out.values().removeIf(mask -> mask == 0);
+            return out;
+        }
+    }
+
+    @Override
+    public boolean replaceAll(Map<UUID, Integer> masks) throws IOException {
+        synchronized (lock) {
+            if (closed) return false;
+            pending.clear();
+            tail.clear();
+            TreeMap<UUID, Integer> sorted = new TreeMap<>(ORDER);
+            sorted.putAll(masks);
+
+            Path tmp = snapshotFile.resolveSibling(SNAPSHOT_FILE + ".tmp");
+            int written;
+            try (SnapshotWriter out = new SnapshotWriter(tmp)) {
+                for (Map.Entry<UUID, Integer> e : sorted.entrySet()) {
+                    if (e.getValue() != null) out.write(e.getKey(), e.getValue());
+                }
+                written = out.finish();
+            }
+            installSnapshot(tmp, written);
+            truncateLog();
+            snapshotBroken = false;
+            opened = true;
+            return true;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            try {
+                flush();
+            } catch (IOException e) {
+                logger.warning("[Cosmetics] Failed to flush " + LOG_FILE + ": " + e.getMessage());
+            }
+            closed = true;
+            closeQuietly(log);
+            closeQuietly(snapshot);
+            log = null;
+            snapshot = null;
+            tail.clear();
+        }
+    }
+
+    private FileChannel openLog() throws IOException {
+        if (log != null) return log;
+        Files.createDirectories(logFile.getParent());
+        FileChannel channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position((channel.size() / LOG_RECORD_BYTES) * LOG_RECORD_BYTES);
+        log = channel;
+        return channel;
+    }
+
+    private FileChannel openSnapshot() throws IOException {
+        if (snapshot == null) snapshot = FileChannel.open(snapshotFile, StandardOpenOption.READ);
+        return snapshot;
+    }
+
+    private void truncateLog() throws IOException {
+        FileChannel channel = openLog();
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+        logRecords = 0;
+    }
+
+    /**
+     * Streams the whole snapshot once to check header and checksum.
+     *
+     * @return number of records
+     */
+    private int verifySnapshot() throws IOException {
+        if (!Files.exists(snapshotFile)) return 0;
+        CRC32 crc = new CRC32();
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(snapshotFile));
+             DataInputStream in = new DataInputStream(new CheckedInputStream(raw, crc))) {
+            if (in.readInt() != MAGIC) throw new IOException(SNAPSHOT_FILE + ": bad magic");
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException(SNAPSHOT_FILE + ": unsupported version " + version);
+            int count = in.readInt();
+            if (count < 0) throw new IOException(SNAPSHOT_FILE + ": bad record count");
+            in.skipNBytes((long) count * SNAPSHOT_RECORD_BYTES);
+            long expected = crc.getValue();
+            int stored = new DataInputStream(raw).readInt();
+            if ((int) expected != stored) throw new IOException(SNAPSHOT_FILE + ": checksum mismatch");
+            return count;
+        }
+    }
+
+    private int searchSnapshot(UUID id) throws IOException {
+        if (snapshotRecords == 0 || snapshotBroken) return 0;
+        ByteBuffer record = ByteBuffer.allocate(SNAPSHOT_RECORD_BYTES);
+        int lo = 0;
+        int hi = snapshotRecords - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            readSnapshotRecord(mid, record);
+            int cmp = ORDER.compare(new UUID(record.getLong(0), record.getLong(8)), id);
+            if (cmp < 0) lo = mid + 1;
+            else if (cmp > 0) hi = mid - 1;
+            else return record.get(16) & 0xFF;
+        }
+        return 0;
+    }
+
+    private void readSnapshotRecord(int index, ByteBuffer record) throws IOException {
+        FileChannel channel = openSnapshot();
+        long offset = HEADER_BYTES + (long) index * SNAPSHOT_RECORD_BYTES;
+        record.clear();
+        while (record.hasRemaining()) {
+            if (channel.read(record, offset + record.position()) < 0) {
+                throw new IOException(SNAPSHOT_FILE + ": unexpected end of file");
+            }
+        }
+    }
+
+    private void installSnapshot(Path tmp, int records) throws IOException {
+        closeQuietly(snapshot);
+        snapshot = null;
+        try {
+            Files.move(tmp, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        snapshotRecords = records;
+        generation++;
+    }
+
+    /**
+     * Drops the first {@code records} log records. The rest goes to a temp file that replaces the log atomically,
+     * so a crash in between leaves either the old log (replayed on top of the new snapshot, which is idempotent)
+     * or the new one, never a truncated one.
+     */
+    private void keepLogAfter(long records) throws IOException {
+        FileChannel channel = openLog();
+        long from = records * LOG_RECORD_BYTES;
+        long size = channel.size();
+        ByteBuffer rest = ByteBuffer.allocate((int) Math.max(0, size - from));
+        while (rest.hasRemaining()) {
+            if (channel.read(rest, from + rest.position()) < 0) break;
+        }
+        rest.flip();
+
+        Path tmp = logFile.resolveSibling(LOG_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (rest.hasRemaining()) out.write(rest);
+            out.force(true);
+        }
+
+        closeQuietly(log);
+        log = null;
+        try {
+            Files.move(tmp, logFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, logFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        openLog();
+        logRecords = rest.limit() / LOG_RECORD_BYTES;
+    }
+
+    /**
+     * Sequential reader positioned at the first snapshot record. Uses its own stream, the snapshot file is only
+     * ever replaced by a move, never rewritten in place.
+     */
+    private DataInputStream openSnapshotStream(int records) throws IOException {
+        if (records == 0) return new DataInputStream(InputStream.nullInputStream());
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile), 64 * 1024));
+        in.skipNBytes(HEADER_BYTES);
+        return in;
+    }
+
+    private long replayLog() throws IOException {
+        if (!Files.exists(logFile)) return 0;
+        FileChannel channel = openLog();
+        long size = channel.size();
+        ByteBuffer record = ByteBuffer.allocate(LOG_RECORD_BYTES);
+        CRC32 crc = new CRC32();
+        long offset = 0;
+        long records = 0;
+        while (offset + LOG_RECORD_BYTES <= size) {
+            record.clear();
+            while (record.hasRemaining()) {
+                if (channel.read(record, offset + record.position()) < 0) break;
+            }
+            if (record.hasRemaining()) break;
+
+            crc.reset();
+            crc.update(record.array(), 0, SNAPSHOT_RECORD_BYTES);
+            if ((int) crc.getValue() != record.getInt(SNAPSHOT_RECORD_BYTES)) break;
+
+            tail.put(new UUID(record.getLong(0), record.getLong(8)), record.get(16) & 0xFF);
+            offset += LOG_RECORD_BYTES;
+            records++;
+        }
+
+        if (offset != size) {
+            logger.warning("[Cosmetics] " + LOG_FILE + ": dropping " + (size - offset) + " trailing byte(s) after an incomplete write");
+            channel.truncate(offset);
+            channel.force(true);
+        }
+        channel.position(offset);
+        return records;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private record Pending(UUID id, byte mask) {}
+
+    /**
+     * Writes a snapshot to a temp file: header, records (zero masks left out), then the checksum.
+     * The header is filled in by {@link #finish()} once the record count is known.
+     */
+    private static final class SnapshotWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final DataOutputStream out;
+        private int count;
+
+        private SnapshotWriter(Path file) throws IOException {
+            Files.createDirectories(file.getParent());
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+            out.write(new byte[HEADER_BYTES]);
+        }
+
+        private void write(UUID id, int mask) throws IOException {
+            if ((mask & 0xFF) == 0) return;
+            out.writeLong(id.getMostSignificantBits());
+            out.writeLong(id.getLeastSignificantBits());
+            out.writeByte(mask);
+            count++;
+        }
+
+        private int finish() throws IOException {
+            out.flush();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putInt(count);
+            header.flip();
+            while (header.hasRemaining()) channel.write(header, header.position());
+
+            // Checksum over header + records, read back in file order.
+            CRC32 crc = new CRC32();
+            ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+            long position = 0;
+            long end = channel.size();
+            while (position < end) {
+                buf.clear();
+                int read = channel.read(buf, position);
+                if (read < 0) break;
+                crc.update(buf.array(), 0, read);
+                position += read;
+            }
+
+            ByteBuffer trailer = ByteBuffer.allocate(4).putInt((int) crc.getValue());
+            trailer.flip();
+            while (trailer.hasRemaining()) channel.write(trailer, end + trailer.position());
+            channel.force(true);
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package de.felix.lumelobby.ux;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Persistent cosmetic preferences, one bitmask per player.
+ * <p>
+ * {@link #append} is called on the main thread and must not block; everything else runs on async tasks.
+ */
+interface CosmeticsStore {
+
+    String name();
+
+    /**
+     * @return true if this store already holds data (no import from the binary store or cosmetics.yml needed).
+     */
+    boolean exists() throws IOException;
+
+    void open() throws IOException;
+
+    /**
+     * @return true if other servers may write to the same data, so nothing loaded from it may be cached locally.
+     */
+    default boolean shared() {
+        return false;
+    }
+
+    /**
+     * @return the stored mask, 0 if the player has none.
+     */
+    int load(UUID id) throws IOException;
+
+    /**
+     * Records a new mask. Visible to {@link #load} right away, persisted by the next {@link #flush()}.
+     */
+    void append(UUID id, int mask);
+
+    void flush() throws IOException;
+
+    /**
+     * Replaces all data with the given masks (one-time import).
+     *
+     * @return false if the import was skipped, e.g. another server already filled a shared store
+     */
+    boolean replaceAll(Map<UUID, Integer> masks) throws IOException;
+
+    /**
+     * Periodic maintenance.
+     *
+     * @return true if something was compacted.
+     */
+    default boolean compactIfNeeded() throws IOException {
+        return false;
+    }
+
+    /**
+     * Flushes pending writes and releases files/connections.
+     */
+    void close();
+}
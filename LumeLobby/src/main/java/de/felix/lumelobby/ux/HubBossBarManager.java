@@ -1,98 +1,206 @@
 package de.felix.lumelobby.ux;
 
 import de.felix.lumelobby.config.LobbyConfig;
-import lombok.RequiredArgsConstructor;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.boss.BarColor;
 import org.bukkit.boss.BarStyle;
 import org.bukkit.boss.BossBar;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
-@RequiredArgsConstructor
+/**
+ * Hub boss bar. The configured frames are compiled once; the bar is only written when the frame advances
+ * or a placeholder value actually changed. If any frame uses a per-player placeholder, every player gets
+ * an own bar, otherwise all players share one.
+ */
 final class HubBossBarManager {
 
     private final Plugin plugin;
     private final LobbyConfig config;
-    private final ConcurrentHashMap<UUID, Boolean> active = new ConcurrentHashMap<>();
-    private volatile BossBar bossBar;
+    private final List<Frame> frames;
+    private final BarStyle style;
+    private final boolean perPlayer;
+    private final Map<UUID, Bar> bars = new ConcurrentHashMap<>();
+    private volatile Bar shared;
+    private int frameIndex;
+    private int frameTicksLeft;
+    private HubLineTemplate.Globals globals;
 
-    void tick(Iterable<? extends Player> onlinePlayers, HubScoreboardManager.HubWorldPredicate isInHubWorld) {
+    HubBossBarManager(Plugin plugin, LobbyConfig config) {
+        this.plugin = plugin;
+        this.config = config;
+        LobbyConfig.BossBarConfig cfg = config.hubUx().bossbar();
+        this.frames = cfg == null ? List.of() : compileFrames(cfg);
+        this.style = cfg == null ? BarStyle.SOLID : parseStyle(cfg.style());
+        this.perPlayer = frames.stream().anyMatch(frame -> frame.title().perPlayer());
+        this.frameTicksLeft = frames.isEmpty() ? 0 : frames.get(0).durationTicks();
+    }
+
+    /**
+     * Runs every tick: advances the animation and pushes the shared bar.
+     *
+     * @param refresh true on the scoreboard interval, re-renders placeholder titles
+     */
+    void tickShared(boolean refresh) {
+        globals = null;
         if (!enabled()) {
             stop();
             return;
         }
 
-        ensureCreated();
-        BossBar bar = bossBar;
+        boolean advanced = advance();
+        if (perPlayer) {
+            if (advanced) {
+                Frame frame = frame();
+                for (Map.Entry<UUID, Bar> entry : bars.entrySet()) {
+                    Player player = Bukkit.getPlayer(entry.getKey());
+                    if (player != null) entry.getValue().push(frame, player, globalsFor(frame));
+                }
+            }
+            return;
+        }
+
+        Bar bar = ensureShared();
         if (bar == null) return;
+        Frame frame = frame();
+        if (advanced || (refresh && !frame.title().isStatic())) {
+            bar.push(frame, null, globalsFor(frame));
+        }
+    }
 
-        bar.setTitle(colorize(config.hubUx().bossbar().title()));
-        bar.setProgress(config.hubUx().bossbar().progress());
+    void tick(Player player, boolean inHub) {
+        if (player == null) return;
+        if (!enabled()) return;
+        UUID id = player.getUniqueId();
 
-        for (Player player : onlinePlayers) {
-            if (player == null) continue;
-            boolean inHub = isInHubWorld.isInHub(player);
-            if (inHub) {
-                if (active.putIfAbsent(player.getUniqueId(), Boolean.TRUE) == null) {
-                    bar.addPlayer(player);
-                }
-            } else {
-                if (active.remove(player.getUniqueId()) != null) {
-                    bar.removePlayer(player);
-                }
+        if (perPlayer) {
+            if (!inHub) {
+                remove(player);
+                return;
+            }
+            Frame frame = frame();
+            Bar bar = bars.get(id);
+            if (bar == null) {
+                bar = createBar(frame);
+                if (bar == null) return;
+                bars.put(id, bar);
+                bar.bossBar.addPlayer(player);
             }
+            bar.push(frame, player, globalsFor(frame));
+            return;
+        }
+
+        Bar bar = shared;
+        if (bar == null) return;
+        if (inHub) {
+            if (bars.putIfAbsent(id, bar) == null) {
+                bar.bossBar.addPlayer(player);
+            }
+        } else {
+            remove(player);
         }
     }
 
     void stop() {
-        BossBar bar = bossBar;
-        bossBar = null;
-        active.clear();
-        if (bar != null) {
-            try {
-                bar.removeAll();
-            } catch (Exception ignored) {
-            }
+        Bar bar = shared;
+        shared = null;
+        List<Bar> own = perPlayer ? new ArrayList<>(bars.values()) : List.of();
+        bars.clear();
+        if (bar != null) bar.removeAll();
+        for (Bar b : own) {
+            b.removeAll();
         }
     }
 
     void onQuit(Player player) {
         if (player == null) return;
-        BossBar bar = bossBar;
+        remove(player);
+    }
+
+    private void remove(Player player) {
+        Bar bar = bars.remove(player.getUniqueId());
         if (bar == null) return;
-        if (active.remove(player.getUniqueId()) != null) {
-            try {
-                bar.removePlayer(player);
-            } catch (Exception ignored) {
-            }
+        try {
+            bar.bossBar.removePlayer(player);
+        } catch (Exception ignored) {
         }
     }
 
     private boolean enabled() {
-        return config.hubUx() != null && config.hubUx().enabled() && config.hubUx().bossbar() != null && config.hubUx().bossbar().enabled();
+        return !frames.isEmpty() && config.hubUx() != null && config.hubUx().enabled() && config.hubUx().bossbar() != null && config.hubUx().bossbar().enabled();
+    }
+
+    /**
+     * Placeholder snapshot shared by every render of this tick; static titles never need one.
+     */
+    private HubLineTemplate.Globals globalsFor(Frame frame) {
+        if (frame.title().isStatic()) return null;
+        if (globals == null) globals = HubLineTemplate.Globals.capture();
+        return globals;
+    }
+
+    private Frame frame() {
+        return frames.get(frameIndex);
+    }
+
+    /**
+     * @return true if a new frame became current this tick
+     */
+    private boolean advance() {
+        if (frames.size() < 2) return false;
+        if (--frameTicksLeft > 0) return false;
+        frameIndex = (frameIndex + 1) % frames.size();
+        frameTicksLeft = frames.get(frameIndex).durationTicks();
+        return true;
     }
 
-    private void ensureCreated() {
-        if (bossBar != null) return;
+    private Bar ensureShared() {
+        Bar bar = shared;
+        if (bar != null) return bar;
+        Frame frame = frame();
+        bar = createBar(frame);
+        if (bar == null) return null;
+        bar.push(frame, null, globalsFor(frame));
+        shared = bar;
+        return bar;
+    }
+
+    private Bar createBar(Frame frame) {
         try {
-            LobbyConfig.BossBarConfig cfg = config.hubUx().bossbar();
-            BarColor color = parseColor(cfg.color());
-            BarStyle style = parseStyle(cfg.style());
-            bossBar = Bukkit.createBossBar(colorize(cfg.title()), color, style);
+            BossBar bossBar = Bukkit.createBossBar("", frame.color(), style);
             bossBar.setVisible(true);
-            bossBar.setProgress(cfg.progress());
+            return new Bar(bossBar);
         } catch (Exception e) {
             plugin.getLogger().warning("[HubUx] BossBar init failed: " + e.getMessage());
-            bossBar = null;
+            return null;
         }
     }
 
+    private static List<Frame> compileFrames(LobbyConfig.BossBarConfig cfg) {
+        BarColor baseColor = parseColor(cfg.color());
+        List<LobbyConfig.BossBarFrameConfig> raw = cfg.frames() == null ? List.of() : cfg.frames();
+        if (raw.isEmpty()) {
+            return List.of(new Frame(HubLineTemplate.compile(cfg.title()), cfg.progress(), baseColor, Integer.MAX_VALUE));
+        }
+        List<Frame> out = new ArrayList<>(raw.size());
+        for (LobbyConfig.BossBarFrameConfig frame : raw) {
+            out.add(new Frame(
+                HubLineTemplate.compile(frame.title() == null ? cfg.title() : frame.title()),
+                frame.progress() == null ? cfg.progress() : frame.progress(),
+                frame.color() == null ? baseColor : parseColor(frame.color()),
+                frame.durationTicks()
+            ));
+        }
+        return List.copyOf(out);
+    }
+
     private static BarColor parseColor(String raw) {
         if (raw == null) return BarColor.BLUE;
         try {
@@ -111,7 +219,43 @@ final class HubBossBarManager {
         }
     }
 
-    private static String colorize(String text) {
-        return ChatColor.translateAlternateColorCodes('&', text == null ? "" : text);
+    private record Frame(HubLineTemplate title, double progress, BarColor color, int durationTicks) {
+    }
+
+    /**
+     * A boss bar plus the values last sent to it, so unchanged values are never re-sent.
+     */
+    private static final class Bar {
+        private final BossBar bossBar;
+        private String title;
+        private double progress = -1;
+        private BarColor color;
+
+        private Bar(BossBar bossBar) {
+            this.bossBar = bossBar;
+        }
+
+        private void push(Frame frame, Player player, HubLineTemplate.Globals globals) {
+            String nextTitle = frame.title().render(player, globals);
+            if (!nextTitle.equals(title)) {
+                bossBar.setTitle(nextTitle);
+                title = nextTitle;
+            }
+            if (frame.progress() != progress) {
+                bossBar.setProgress(frame.progress());
+                progress = frame.progress();
+            }
+            if (frame.color() != color) {
+                bossBar.setColor(frame.color());
+                color = frame.color();
+            }
+        }
+
+        private void removeAll() {
+            try {
+                bossBar.removeAll();
+            } catch (Exception ignored) {
+            }
+        }
     }
 }
@@ -8,7 +8,6 @@ import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.NamespacedKey;
 import org.bukkit.Particle;
 import org.bukkit.World;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -20,12 +19,16 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.Vector;
 
 import java.io.File;
-import java.time.Instant;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -36,81 +39,163 @@ import java.util.concurrent.ConcurrentHashMap;
 final class HubCosmeticsManager {
 
     private static final String PERM_PREFIX = "lumelobby.cosmetics.";
+    private static final String LEGACY_FILE = "cosmetics.yml";
+    private static final long COMPACT_CHECK_TICKS = 20L * 60 * 5;
+    private static final int RECENT_CAPACITY = 256;
 
     private final Plugin plugin;
     private final LobbyConfig config;
     private final LumeLobbyApi api;
+    private final HubItems items;
+    private final HubItemClassifier classifier;
 
+    // Online players only; an entry means "loaded" (possibly empty).
     private final Map<UUID, EnumSet<Cosmetic>> enabled = new ConcurrentHashMap<>();
-    private final Map<UUID, Location> lastTrailLoc = new ConcurrentHashMap<>();
-    private final Map<UUID, Double> auraPhase = new ConcurrentHashMap<>();
+    // Pre-logins that haven't joined yet and, for local stores, recent leavers, so quick rejoins skip the store.
+    private final Map<UUID, EnumSet<Cosmetic>> recent = Collections.synchronizedMap(new LinkedHashMap<UUID, EnumSet<Cosmetic>>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, EnumSet<Cosmetic>> eldest) {
+            return size() > RECENT_CAPACITY;
+        }
+    });
+    private final Map<UUID, TrailPoint> lastTrail = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> auraStep = new ConcurrentHashMap<>();
     private final Map<UUID, Long> gadgetCooldownUntilMs = new ConcurrentHashMap<>();
-
-    private final File storeFile;
+    private final CosmeticParticleDispatcher particles = new CosmeticParticleDispatcher();
+    private final Location scratch = new Location(null, 0, 0, 0);
+
+    private final CosmeticShapes shapes;
+    private final Particle wingsParticle;
+    private final Particle trailParticle;
+    private final Particle haloParticle;
+    private final Particle auraParticle;
+    private final Particle gadgetParticle;
+    private final CosmeticParticleDispatcher.Lod lod;
+
+    private final CosmeticsStore store;
     private final Object saveLock = new Object();
     private volatile boolean saveQueued;
+    private BukkitTask compactTask;
 
-    HubCosmeticsManager(Plugin plugin, LobbyConfig config, LumeLobbyApi api) {
+    HubCosmeticsManager(Plugin plugin, LobbyConfig config, LumeLobbyApi api, HubItems items, HubItemClassifier classifier) {
         this.plugin = plugin;
         this.config = config;
         this.api = api;
-        this.storeFile = new File(plugin.getDataFolder(), "cosmetics.yml");
-        load();
+        this.items = items;
+        this.classifier = classifier;
+        this.store = createStore(plugin, config.hubUx().cosmetics());
+
+        var cfg = config.hubUx().cosmetics();
+        var particleCfg = cfg == null ? null : cfg.particles();
+        this.shapes = CosmeticShapes.from(cfg);
+        this.wingsParticle = parseParticle(particleCfg == null ? null : particleCfg.wings(), Particle.END_ROD);
+        this.trailParticle = parseParticle(particleCfg == null ? null : particleCfg.trail(), Particle.CLOUD);
+        this.haloParticle = parseParticle(particleCfg == null ? null : particleCfg.halo(), Particle.FIREWORK);
+        this.auraParticle = parseParticle(particleCfg == null ? null : particleCfg.aura(), Particle.ENCHANT);
+        this.gadgetParticle = parseParticle(cfg == null || cfg.gadgetItem() == null ? null : cfg.gadgetItem().particle(), Particle.FIREWORK);
+        this.lod = createLod(cfg == null ? null : cfg.lod());
+        List<UUID> online = new ArrayList<>();
+        for (Player player : Bukkit.getOnlinePlayers()) online.add(player.getUniqueId());
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> openStore(online));
+        this.compactTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::compactIfNeeded, COMPACT_CHECK_TICKS, COMPACT_CHECK_TICKS);
+    }
+
+    void tick(Player player, boolean inHub) {
+        if (player == null) return;
+        if (!inHub) {
+            cleanup(player);
+            return;
+        }
+        if (api != null && api.shouldBypassAutoTeleport(player)) {
+            cleanup(player);
+            return;
+        }
+
+        long nowMs = System.currentTimeMillis();
+        tickWings(player, nowMs);
+        tickHalo(player, nowMs);
+        tickAura(player);
+        tickTrail(player);
     }
 
-    void tick(Iterable<? extends Player> onlinePlayers, HubScoreboardManager.HubWorldPredicate isInHubWorld) {
-        for (Player player : onlinePlayers) {
-            if (player == null) continue;
-            boolean inHub = isInHubWorld.isInHub(player);
-            if (!inHub) {
-                cleanup(player);
-                continue;
-            }
-            if (api != null && api.shouldBypassAutoTeleport(player)) {
-                cleanup(player);
-                continue;
-            }
+    /**
+     * Repairs the cosmetics menu item and gadget; called by the loadout enforcement, not every cosmetics tick.
+     */
+    void ensureItems(Player player, boolean inHub) {
+        if (player == null || !inHub) return;
+        var cfg = config.hubUx().cosmetics();
+        if (cfg != null && !cfg.enabled()) return;
+        if (api != null && api.shouldBypassAutoTeleport(player)) return;
+        ensureMenuItem(player);
+        ensureGadgetItem(player);
+    }
 
-            ensureMenuItem(player);
-            ensureGadgetItem(player);
-            tickWings(player);
-            tickHalo(player);
-            tickAura(player);
-            tickTrail(player);
+    /**
+     * Sends the particles collected during this tick to the players that can actually see them.
+     */
+    void flushParticles() {
+        var cfg = config.hubUx().cosmetics();
+        particles.flush(cfg == null ? 32.0 : cfg.viewDistance(), lod);
+    }
+
+    /**
+     * Runs on the async pre-login thread. Shared stores are always read, the player may have changed something on
+     * another server since they left this one.
+     */
+    void preload(UUID id) {
+        if (id == null || enabled.containsKey(id)) return;
+        if (!store.shared() && recent.containsKey(id)) return;
+        try {
+            recent.put(id, fromMask(store.load(id)));
+        } catch (Exception e) {
+            plugin.getLogger().warning("[Cosmetics] Failed to load preferences of " + id + ": " + e.getMessage());
+        }
+    }
+
+    void onJoin(Player player) {
+        if (player == null) return;
+        UUID id = player.getUniqueId();
+        EnumSet<Cosmetic> preloaded = recent.remove(id);
+        if (preloaded != null) {
+            enabled.putIfAbsent(id, preloaded);
+            return;
         }
+        // Missed the pre-login (e.g. joined during a reload): load now, off the main thread.
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            EnumSet<Cosmetic> set = loadQuietly(id);
+            if (set == null) return;
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (player.isOnline()) enabled.putIfAbsent(id, set);
+            });
+        });
     }
 
     void onQuit(Player player) {
         if (player == null) return;
         cleanup(player);
+        // Every toggle is already visible to store.load(), so the entry can go; the recent cache only saves a lookup.
+        EnumSet<Cosmetic> set = enabled.remove(player.getUniqueId());
+        if (set != null && !store.shared()) recent.put(player.getUniqueId(), set);
     }
 
     void shutdown() {
+        particles.close();
+        if (compactTask != null) {
+            compactTask.cancel();
+            compactTask = null;
+        }
         saveNow();
+        store.close();
     }
 
-    boolean isCosmeticsMenuItem(ItemStack item) {
-        return hasByte(item, menuKey());
-    }
-
-    boolean isGadgetItem(ItemStack item) {
-        return hasByte(item, gadgetKey());
-    }
-
-    boolean handleInteract(Player player, ItemStack usedItem) {
+    boolean handleInteract(Player player, HubItemClassifier.Kind kind) {
         if (player == null) return false;
-        if (usedItem == null) return false;
+        if (kind != HubItemClassifier.Kind.COSMETICS_MENU && kind != HubItemClassifier.Kind.GADGET) return false;
         if (api != null && api.shouldBypassAutoTeleport(player)) return false;
 
-        if (isCosmeticsMenuItem(usedItem)) {
-            openMenu(player);
-            return true;
-        }
-        if (isGadgetItem(usedItem)) {
-            useGadget(player);
-            return true;
-        }
-        return false;
+        if (kind == HubItemClassifier.Kind.COSMETICS_MENU) openMenu(player);
+        else useGadget(player);
+        return true;
     }
 
     boolean handleMenuClick(Player player, Inventory top, ItemStack clicked) {
@@ -118,7 +203,7 @@ final class HubCosmeticsManager {
         if (!isCosmeticsMenu(top)) return false;
         if (clicked == null) return true;
 
-        String id = getString(clicked, actionKey());
+        String id = classifier.cosmeticsAction(clicked);
         if (id == null) return true;
         Cosmetic cosmetic = Cosmetic.from(id);
         if (cosmetic == null) return true;
@@ -154,7 +239,7 @@ final class HubCosmeticsManager {
         ItemStack item = new ItemStack(material);
         ItemMeta meta = item.getItemMeta();
         if (meta != null) {
-            meta.getPersistentDataContainer().set(actionKey(), PersistentDataType.STRING, cosmetic.id());
+            meta.getPersistentDataContainer().set(classifier.cosmeticsActionKey(), PersistentDataType.STRING, cosmetic.id());
 
             String state = unlocked ? (on ? "&aEnabled" : "&7Disabled") : "&cLocked";
             meta.setDisplayName(colorize(cosmetic.displayName() + " &8- " + state));
@@ -174,7 +259,11 @@ final class HubCosmeticsManager {
             return;
         }
 
-        EnumSet<Cosmetic> set = enabled.computeIfAbsent(player.getUniqueId(), k -> EnumSet.noneOf(Cosmetic.class));
+        EnumSet<Cosmetic> set = enabled.get(player.getUniqueId());
+        if (set == null) {
+            player.sendMessage("§cDeine Cosmetics werden noch geladen.");
+            return;
+        }
         boolean nowOn;
         if (set.contains(cosmetic)) {
             set.remove(cosmetic);
@@ -190,6 +279,7 @@ final class HubCosmeticsManager {
             if (cosmetic == Cosmetic.GADGET) ensureGadgetItem(player);
         }
 
+        store.append(player.getUniqueId(), toMask(set));
         saveSoon();
     }
 
@@ -208,53 +298,18 @@ final class HubCosmeticsManager {
         var cfg = config.hubUx().cosmetics();
         var itemCfg = cfg == null ? null : cfg.menuItem();
         if (itemCfg == null || !itemCfg.enabled()) return;
-
-        int slot = clampSlot(itemCfg.slot());
-        ItemStack existing = player.getInventory().getItem(slot);
-        if (isCosmeticsMenuItem(existing)) return;
-
-        Material material = parseMaterial(itemCfg.material(), Material.ENDER_CHEST);
-        ItemStack item = new ItemStack(material);
-        ItemMeta meta = item.getItemMeta();
-        if (meta != null) {
-            meta.getPersistentDataContainer().set(menuKey(), PersistentDataType.BYTE, (byte) 1);
-            meta.setDisplayName(colorize(itemCfg.name()));
-            List<String> lore = itemCfg.lore();
-            if (lore == null || lore.isEmpty()) lore = List.of("&7Right click to open");
-            meta.setLore(lore.stream().map(HubCosmeticsManager::colorize).toList());
-            item.setItemMeta(meta);
-        }
-        player.getInventory().setItem(slot, item);
+        HubItems.ensure(player.getInventory(), items.cosmeticsMenuSlot(), items.cosmeticsMenuTemplate());
     }
 
     private void ensureGadgetItem(Player player) {
         if (!isEnabled(player, Cosmetic.GADGET)) return;
-        var cfg = config.hubUx().cosmetics();
-        var gadgetCfg = cfg == null ? null : cfg.gadgetItem();
-        int slot = gadgetCfg == null ? 2 : clampSlot(gadgetCfg.slot());
-        ItemStack existing = player.getInventory().getItem(slot);
-        if (isGadgetItem(existing)) return;
-
-        Material material = parseMaterial(gadgetCfg == null ? null : gadgetCfg.material(), Material.BLAZE_ROD);
-        ItemStack item = new ItemStack(material);
-        ItemMeta meta = item.getItemMeta();
-        if (meta != null) {
-            meta.getPersistentDataContainer().set(gadgetKey(), PersistentDataType.BYTE, (byte) 1);
-            meta.setDisplayName(colorize(gadgetCfg == null ? "&e&lGadget" : gadgetCfg.name()));
-            List<String> lore = gadgetCfg == null ? null : gadgetCfg.lore();
-            if (lore == null || lore.isEmpty()) lore = List.of("&7Right click", "&7Small boost + particles");
-            meta.setLore(lore.stream().map(HubCosmeticsManager::colorize).toList());
-            item.setItemMeta(meta);
-        }
-        player.getInventory().setItem(slot, item);
+        HubItems.ensure(player.getInventory(), items.gadgetSlot(), items.gadgetTemplate());
     }
 
     private void removeGadgetItem(Player player) {
-        var cfg = config.hubUx().cosmetics();
-        var gadgetCfg = cfg == null ? null : cfg.gadgetItem();
-        int slot = gadgetCfg == null ? 2 : clampSlot(gadgetCfg.slot());
+        int slot = items.gadgetSlot();
         ItemStack existing = player.getInventory().getItem(slot);
-        if (isGadgetItem(existing)) player.getInventory().setItem(slot, null);
+        if (classifier.classify(existing) == HubItemClassifier.Kind.GADGET) player.getInventory().setItem(slot, null);
     }
 
     private void useGadget(Player player) {
@@ -282,122 +337,91 @@ final class HubCosmeticsManager {
         dir.multiply(f).setY(y);
         player.setVelocity(dir);
 
-        Particle particle = parseParticle(gadgetCfg == null ? null : gadgetCfg.particle(), Particle.FIREWORK);
         int count = gadgetCfg == null ? 35 : Math.max(0, gadgetCfg.particleCount());
-        world.spawnParticle(particle, loc.add(0, 1.0, 0), count, 0.35, 0.35, 0.35, 0.02);
+        particles.add(player, CosmeticParticleDispatcher.Kind.GADGET, gadgetParticle, loc.getX(), loc.getY() + 1.0, loc.getZ(), count, 0.35, 0.35, 0.35, 0.02);
         player.playSound(player.getLocation(), org.bukkit.Sound.ENTITY_FIREWORK_ROCKET_LAUNCH, 1.0f, 1.2f);
     }
 
     private void tickTrail(Player player) {
         if (!isEnabled(player, Cosmetic.TRAIL)) return;
-        Location now = player.getLocation();
-        Location last = lastTrailLoc.put(player.getUniqueId(), now.clone());
-        if (last == null) return;
-        if (last.getWorld() == null || now.getWorld() == null) return;
-        if (!last.getWorld().equals(now.getWorld())) return;
-        if (last.distanceSquared(now) < 0.15 * 0.15) return;
+        Location now = player.getLocation(scratch);
+        World world = now.getWorld();
+        if (world == null) return;
+
+        TrailPoint last = lastTrail.get(player.getUniqueId());
+        if (last == null) {
+            lastTrail.put(player.getUniqueId(), new TrailPoint(world, now.getX(), now.getY(), now.getZ()));
+            return;
+        }
+        boolean sameWorld = last.world == world;
+        double dx = now.getX() - last.x;
+        double dy = now.getY() - last.y;
+        double dz = now.getZ() - last.z;
+        last.set(world, now.getX(), now.getY(), now.getZ());
+        if (!sameWorld) return;
+        if (dx * dx + dy * dy + dz * dz < 0.15 * 0.15) return;
 
-        World w = now.getWorld();
-        Particle particle = parseParticle(config.hubUx().cosmetics().particles().trail(), Particle.CLOUD);
-        w.spawnParticle(particle, now.clone().add(0, 0.1, 0), 4, 0.05, 0.01, 0.05, 0.0);
+        particles.add(player, CosmeticParticleDispatcher.Kind.TRAIL, trailParticle, now.getX(), now.getY() + 0.1, now.getZ(), 4, 0.05, 0.01, 0.05, 0.0);
     }
 
-    private void tickHalo(Player player) {
+    private void tickHalo(Player player, long nowMs) {
         if (!isEnabled(player, Cosmetic.HALO)) return;
-        Location base = player.getLocation().add(0, 2.15, 0);
-        World w = base.getWorld();
-        if (w == null) return;
-        var haloCfg = config.hubUx().cosmetics().halo();
-        double r = haloCfg == null ? 0.45 : haloCfg.radius();
-        int pts = haloCfg == null ? 12 : Math.max(3, haloCfg.points());
-        long periodMs = haloCfg == null ? 2000L : Math.max(500L, haloCfg.periodMs());
+        Location loc = player.getLocation(scratch);
+        if (loc.getWorld() == null) return;
 
-        long t = Instant.now().toEpochMilli();
-        double rot = (t % periodMs) / (double) periodMs * Math.PI * 2;
-        Particle particle = parseParticle(config.hubUx().cosmetics().particles().halo(), Particle.FIREWORK);
-        for (int i = 0; i < pts; i++) {
-            double a = rot + (Math.PI * 2 * i / (double) pts);
-            double x = Math.cos(a) * r;
-            double z = Math.sin(a) * r;
-            w.spawnParticle(particle, base.clone().add(x, 0, z), 1, 0, 0, 0, 0);
+        double[] table = shapes.halo();
+        int o = shapes.haloRow(nowMs);
+        for (int i = 0, n = shapes.haloPoints(); i < n; i++, o += 3) {
+            particles.add(player, CosmeticParticleDispatcher.Kind.HALO, haloParticle, loc.getX() + table[o], loc.getY() + table[o + 1], loc.getZ() + table[o + 2], 1, 0, 0, 0, 0);
         }
     }
 
     private void tickAura(Player player) {
         if (!isEnabled(player, Cosmetic.AURA)) return;
-        Location base = player.getLocation().add(0, 0.9, 0);
-        World w = base.getWorld();
-        if (w == null) return;
-        double p = auraPhase.compute(player.getUniqueId(), (k, v) -> v == null ? 0.0 : v + 0.25);
-        double r = 0.65;
-        Particle particle = parseParticle(config.hubUx().cosmetics().particles().aura(), Particle.ENCHANT);
-        for (int i = 0; i < 3; i++) {
-            double a = p + (i * (Math.PI * 2 / 3));
-            double x = Math.cos(a) * r;
-            double z = Math.sin(a) * r;
-            w.spawnParticle(particle, base.clone().add(x, 0.15 * i, z), 1, 0, 0, 0, 0);
+        Location loc = player.getLocation(scratch);
+        if (loc.getWorld() == null) return;
+
+        int step = auraStep.merge(player.getUniqueId(), 0, (current, ignored) -> (current + 1) % CosmeticShapes.AURA_STEPS);
+        double[] table = shapes.aura();
+        int o = shapes.auraRow(step);
+        for (int i = 0; i < CosmeticShapes.AURA_POINTS; i++, o += 3) {
+            particles.add(player, CosmeticParticleDispatcher.Kind.AURA, auraParticle, loc.getX() + table[o], loc.getY() + table[o + 1], loc.getZ() + table[o + 2], 1, 0, 0, 0, 0);
         }
     }
 
-    private void tickWings(Player player) {
+    private void tickWings(Player player, long nowMs) {
         if (!isEnabled(player, Cosmetic.WINGS)) return;
-        Location loc = player.getLocation();
-        World w = loc.getWorld();
-        if (w == null) return;
-
-        float yaw = loc.getYaw();
-        double rad = Math.toRadians(yaw);
-        Vector forward = new Vector(-Math.sin(rad), 0, Math.cos(rad));
-        if (forward.lengthSquared() > 1e-6) forward.normalize();
-        Vector up = new Vector(0, 1, 0);
-        Vector right = new Vector(forward.getZ(), 0, -forward.getX());
-        right.normalize();
-
-        Location base = loc.clone().add(0, 1.25, 0).subtract(forward.clone().multiply(0.25));
-
-        long t = Instant.now().toEpochMilli();
-        var wingsCfg = config.hubUx().cosmetics().wings();
-        long flapPeriod = wingsCfg == null ? 1500L : Math.max(200L, wingsCfg.flapPeriodMs());
-        double flapStrength = wingsCfg == null ? 0.08 : wingsCfg.flapStrength();
-        double flap = Math.sin((t % flapPeriod) / (double) flapPeriod * Math.PI * 2) * flapStrength;
-
-        spawnWing(w, base, right, up, forward, +1, flap);
-        spawnWing(w, base, right, up, forward, -1, flap);
-    }
-
-    private void spawnWing(World w, Location base, Vector right, Vector up, Vector forward, int side, double flap) {
-        int points = Math.max(1, config.hubUx().cosmetics().wings().points());
-        Particle particle = parseParticle(config.hubUx().cosmetics().particles().wings(), Particle.END_ROD);
-        for (int i = 0; i < points; i++) {
-            double y = i * 0.12;
-            double x = 0.18 + i * 0.10;
-            double z = (i * 0.03) + flap;
-            Vector off = right.clone().multiply(side * x).add(up.clone().multiply(y)).add(forward.clone().multiply(-z));
-            Location p = base.clone().add(off);
-            w.spawnParticle(particle, p, 1, 0, 0, 0, 0);
+        Location loc = player.getLocation(scratch);
+        if (loc.getWorld() == null) return;
+
+        int bucket = shapes.yawBucket(loc.getYaw());
+        double flap = shapes.flap(nowMs);
+        double flapX = -shapes.forwardX(bucket) * flap;
+        double flapZ = -shapes.forwardZ(bucket) * flap;
+
+        double[] table = shapes.wings();
+        int o = shapes.wingRow(bucket);
+        for (int i = 0, n = shapes.wingPoints() * 2; i < n; i++, o += 3) {
+            particles.add(player, CosmeticParticleDispatcher.Kind.WINGS, wingsParticle, loc.getX() + table[o] + flapX, loc.getY() + table[o + 1], loc.getZ() + table[o + 2] + flapZ, 1, 0, 0, 0, 0);
         }
     }
 
     private void cleanup(Player player) {
         UUID id = player.getUniqueId();
-        lastTrailLoc.remove(id);
-        auraPhase.remove(id);
+        lastTrail.remove(id);
+        auraStep.remove(id);
         gadgetCooldownUntilMs.remove(id);
     }
 
-    private static int clampSlot(int slot) {
-        if (slot < 0) return 0;
-        if (slot > 35) return 35;
-        return slot;
-    }
-
-    private static Material parseMaterial(String raw, Material fallback) {
-        if (raw == null) return fallback;
-        try {
-            return Material.valueOf(raw.trim().toUpperCase(Locale.ROOT));
-        } catch (Exception ignored) {
-            return fallback;
-        }
+    private static CosmeticParticleDispatcher.Lod createLod(LobbyConfig.CosmeticsLodConfig lodCfg) {
+        if (lodCfg == null) return new CosmeticParticleDispatcher.Lod(false, 0, 1, new int[CosmeticParticleDispatcher.Kind.values().length]);
+        int[] budgets = new int[CosmeticParticleDispatcher.Kind.values().length];
+        budgets[CosmeticParticleDispatcher.Kind.WINGS.ordinal()] = lodCfg.wingsBudget();
+        budgets[CosmeticParticleDispatcher.Kind.TRAIL.ordinal()] = lodCfg.trailBudget();
+        budgets[CosmeticParticleDispatcher.Kind.HALO.ordinal()] = lodCfg.haloBudget();
+        budgets[CosmeticParticleDispatcher.Kind.AURA.ordinal()] = lodCfg.auraBudget();
+        budgets[CosmeticParticleDispatcher.Kind.GADGET.ordinal()] = lodCfg.gadgetBudget();
+        return new CosmeticParticleDispatcher.Lod(lodCfg.enabled(), lodCfg.nearDistance(), lodCfg.farStride(), budgets);
     }
 
     private static Particle parseParticle(String raw, Particle fallback) {
@@ -409,35 +433,127 @@ final class HubCosmeticsManager {
         }
     }
 
-    private void load() {
+    private void openStore(List<UUID> online) {
         try {
             if (!plugin.getDataFolder().exists()) plugin.getDataFolder().mkdirs();
-            if (!storeFile.exists()) return;
-            YamlConfiguration yml = YamlConfiguration.loadConfiguration(storeFile);
-            for (String key : yml.getKeys(false)) {
-                UUID uuid;
-                try {
-                    uuid = UUID.fromString(key);
-                } catch (Exception ignored) {
-                    continue;
-                }
-                EnumSet<Cosmetic> set = EnumSet.noneOf(Cosmetic.class);
-                for (Cosmetic cosmetic : Cosmetic.values()) {
-                    if (yml.getBoolean(key + "." + cosmetic.id(), false)) set.add(cosmetic);
+            if (!store.exists() && !migrateFromBinary()) migrateLegacy();
+            store.open();
+        } catch (Exception e) {
+            plugin.getLogger().warning("[Cosmetics] Failed to open " + store.name() + " store: " + e.getMessage());
+        }
+
+        for (UUID id : online) {
+            EnumSet<Cosmetic> set = loadQuietly(id);
+            if (set != null) enabled.putIfAbsent(id, set);
+        }
+    }
+
+    private static CosmeticsStore createStore(Plugin plugin, LobbyConfig.CosmeticsConfig cfg) {
+        var storeCfg = cfg == null ? null : cfg.store();
+        String type = storeCfg == null || storeCfg.type() == null ? "binary" : storeCfg.type().trim().toLowerCase(Locale.ROOT);
+        String file = storeCfg == null || storeCfg.file() == null ? "" : storeCfg.file().trim();
+
+        switch (type) {
+            case "yaml" -> {
+                String[] ids = new String[Cosmetic.values().length];
+                for (Cosmetic cosmetic : Cosmetic.values()) ids[cosmetic.ordinal()] = cosmetic.id();
+                return new YamlCosmeticsStore(resolve(plugin, file, LEGACY_FILE), ids);
+            }
+            case "sqlite" -> {
+                if (SqliteCosmeticsStore.driverAvailable()) {
+                    return new SqliteCosmeticsStore(resolve(plugin, file, SqliteCosmeticsStore.DEFAULT_FILE), storeCfg.busyTimeoutMs());
                 }
-                enabled.put(uuid, set);
+                plugin.getLogger().warning("[Cosmetics] SQLite driver not found, falling back to the binary store.");
+            }
+            case "binary" -> {
             }
+            default -> plugin.getLogger().warning("[Cosmetics] Unknown store type '" + type + "', using binary.");
+        }
+        return new CosmeticsLogStore(plugin.getDataFolder().toPath(), plugin.getLogger());
+    }
+
+    /**
+     * Relative paths are resolved against the plugin folder; absolute ones allow sharing a file between servers.
+     */
+    private static File resolve(Plugin plugin, String configured, String fallback) {
+        if (configured == null || configured.isBlank()) return new File(plugin.getDataFolder(), fallback);
+        File file = new File(configured);
+        return file.isAbsolute() ? file : new File(plugin.getDataFolder(), configured);
+    }
+
+    private EnumSet<Cosmetic> loadQuietly(UUID id) {
+        try {
+            return fromMask(store.load(id));
         } catch (Exception e) {
-            plugin.getLogger().warning("[Cosmetics] Failed to load cosmetics.yml: " + e.getMessage());
+            plugin.getLogger().warning("[Cosmetics] Failed to load preferences of " + id + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * One-time import from the binary store (the default) when switching to another store type. Its files are
+     * left in place, so switching back still finds them.
+     *
+     * @return true if binary data was found and imported
+     */
+    private boolean migrateFromBinary() throws IOException {
+        if (store instanceof CosmeticsLogStore) return false;
+        CosmeticsLogStore previous = new CosmeticsLogStore(plugin.getDataFolder().toPath(), plugin.getLogger());
+        if (!previous.exists()) return false;
+        try {
+            Map<UUID, Integer> masks = previous.loadAll();
+            if (!store.replaceAll(masks)) {
+                plugin.getLogger().info("[Cosmetics] " + store.name() + " store was filled by another server meanwhile, skipped the import.");
+                return true;
+            }
+            plugin.getLogger().info("[Cosmetics] Imported " + masks.size() + " player(s) from the binary store into " + store.name() + ".");
+            return true;
+        } finally {
+            previous.close();
         }
     }
 
+    /**
+     * One-time import of the old cosmetics.yml; the file is kept as cosmetics.yml.migrated.
+     */
+    private void migrateLegacy() throws IOException {
+        File legacy = new File(plugin.getDataFolder(), LEGACY_FILE);
+        if (!legacy.exists()) return;
+
+        YamlConfiguration yml = YamlConfiguration.loadConfiguration(legacy);
+        Map<UUID, Integer> masks = new HashMap<>();
+        for (String key : yml.getKeys(false)) {
+            UUID uuid;
+            try {
+                uuid = UUID.fromString(key);
+            } catch (Exception ignored) {
+                continue;
+            }
+            EnumSet<Cosmetic> set = EnumSet.noneOf(Cosmetic.class);
+            for (Cosmetic cosmetic : Cosmetic.values()) {
+                if (yml.getBoolean(key + "." + cosmetic.id(), false)) set.add(cosmetic);
+            }
+            masks.put(uuid, toMask(set));
+        }
+
+        if (!store.replaceAll(masks)) {
+            plugin.getLogger().info("[Cosmetics] " + store.name() + " store was filled by another server meanwhile, skipped the import of " + LEGACY_FILE + ".");
+            return;
+        }
+        if (!legacy.renameTo(new File(plugin.getDataFolder(), LEGACY_FILE + ".migrated"))) {
+            plugin.getLogger().warning("[Cosmetics] Imported " + LEGACY_FILE + " but could not rename it.");
+        }
+        plugin.getLogger().info("[Cosmetics] Imported " + masks.size() + " player(s) from " + LEGACY_FILE + ".");
+    }
+
     private void saveSoon() {
         synchronized (saveLock) {
             if (saveQueued) return;
             saveQueued = true;
         }
-        Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, this::saveNow, 10L);
+        var storeCfg = config.hubUx().cosmetics() == null ? null : config.hubUx().cosmetics().store();
+        long delay = storeCfg == null ? 10L : storeCfg.flushTicks();
+        Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, this::saveNow, delay);
     }
 
     private void saveNow() {
@@ -445,46 +561,34 @@ final class HubCosmeticsManager {
             saveQueued = false;
         }
         try {
-            if (!plugin.getDataFolder().exists()) plugin.getDataFolder().mkdirs();
-
-            YamlConfiguration yml = new YamlConfiguration();
-            for (Map.Entry<UUID, EnumSet<Cosmetic>> e : enabled.entrySet()) {
-                String root = e.getKey().toString();
-                for (Cosmetic cosmetic : Cosmetic.values()) {
-                    yml.set(root + "." + cosmetic.id(), e.getValue().contains(cosmetic));
-                }
-            }
-            yml.save(storeFile);
+            store.flush();
         } catch (Exception e) {
-            plugin.getLogger().warning("[Cosmetics] Failed to save cosmetics.yml: " + e.getMessage());
+            plugin.getLogger().warning("[Cosmetics] Failed to write " + store.name() + " store: " + e.getMessage());
         }
     }
 
-    private NamespacedKey menuKey() {
-        return new NamespacedKey(plugin, "hub_cosmetics_menu");
-    }
-
-    private NamespacedKey gadgetKey() {
-        return new NamespacedKey(plugin, "hub_gadget");
-    }
-
-    private NamespacedKey actionKey() {
-        return new NamespacedKey(plugin, "cosmetics_action");
+    private void compactIfNeeded() {
+        try {
+            if (store.compactIfNeeded()) {
+                plugin.getLogger().info("[Cosmetics] Compacted " + store.name() + " store.");
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("[Cosmetics] Failed to compact " + store.name() + " store: " + e.getMessage());
+        }
     }
 
-    private static boolean hasByte(ItemStack item, NamespacedKey key) {
-        if (item == null || key == null) return false;
-        ItemMeta meta = item.getItemMeta();
-        if (meta == null) return false;
-        Byte val = meta.getPersistentDataContainer().get(key, PersistentDataType.BYTE);
-        return val != null && val == (byte) 1;
+    private static int toMask(Set<Cosmetic> set) {
+        int mask = 0;
+        for (Cosmetic cosmetic : set) mask |= 1 << cosmetic.ordinal();
+        return mask;
     }
 
-    private static String getString(ItemStack item, NamespacedKey key) {
-        if (item == null || key == null) return null;
-        ItemMeta meta = item.getItemMeta();
-        if (meta == null) return null;
-        return meta.getPersistentDataContainer().get(key, PersistentDataType.STRING);
+    private static EnumSet<Cosmetic> fromMask(int mask) {
+        EnumSet<Cosmetic> set = EnumSet.noneOf(Cosmetic.class);
+        for (Cosmetic cosmetic : Cosmetic.values()) {
+            if ((mask & (1 << cosmetic.ordinal())) != 0) set.add(cosmetic);
+        }
+        return set;
     }
 
     private static String colorize(String text) {
@@ -499,6 +603,27 @@ final class HubCosmeticsManager {
         }
     }
 
+    private static final class TrailPoint {
+        private World world;
+        private double x;
+        private double y;
+        private double z;
+
+        private TrailPoint(World world, double x, double y, double z) {
+            set(world, x, y, z);
+        }
+
+        private void set(World world, double x, double y, double z) {
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+
+    /**
+     * Stored as bit {@code ordinal()} in cosmetics.dat/cosmetics.log: only append new constants.
+     */
     private enum Cosmetic {
         WINGS("wings", 10, Material.FEATHER, Material.GRAY_DYE, "&d&lWings"),
         TRAIL("trail", 11, Material.STRING, Material.GRAY_DYE, "&b&lTrail"),
@@ -1,9 +1,12 @@
 package de.felix.lumelobby.ux;
 
+import de.felix.lumelobby.api.HubEnterEvent;
+import de.felix.lumelobby.api.HubLeaveEvent;
+import de.felix.lumelobby.api.HubTransitionCause;
 import de.felix.lumelobby.api.LumeLobbyApi;
 import de.felix.lumelobby.config.LobbyConfig;
+import de.felix.lumelobby.world.HubMembershipIndex;
 import lombok.RequiredArgsConstructor;
-import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.Sound;
 import org.bukkit.Registry;
@@ -11,26 +14,26 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.player.PlayerChangedWorldEvent;
-import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerToggleFlightEvent;
-import org.bukkit.plugin.Plugin;
 import org.bukkit.util.Vector;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 @RequiredArgsConstructor
 public final class HubDoubleJumpListener implements Listener {
 
-    private final Plugin plugin;
     private final LobbyConfig config;
     private final LumeLobbyApi api;
+    private final HubMembershipIndex membership;
 
     private final Map<UUID, Long> cooldownUntilMs = new ConcurrentHashMap<>();
+    // Players whose allowFlight was turned on by double jump (not by /fly, creative or another plugin).
+    private final Set<UUID> granted = ConcurrentHashMap.newKeySet();
 
     private LobbyConfig.DoubleJumpConfig cfg() {
         if (config.hubUx() == null) return null;
@@ -44,19 +47,10 @@ public final class HubDoubleJumpListener implements Listener {
 
     private boolean isInHub(Player player) {
         if (player == null) return false;
-        if (api != null && api.shouldBypassAutoTeleport(player)) return false;
-        if (player.getWorld() == null) return false;
-        String world = player.getWorld().getName();
-        if (world == null) return false;
-
-        String hub = config.hub() == null ? null : config.hub().worldName();
-        if (hub != null && !hub.isBlank() && hub.equalsIgnoreCase(world)) return true;
-
-        if (config.lobby() != null && config.lobby().sameAsHub()) {
-            String lobby = config.lobby().worldName();
-            return lobby != null && !lobby.isBlank() && lobby.equalsIgnoreCase(world);
-        }
-        return false;
+        boolean inHubWorld = membership.isInHub(player)
+            || (config.lobby() != null && config.lobby().sameAsHub() && membership.isInLobby(player));
+        if (!inHubWorld) return false;
+        return api == null || !api.shouldBypassAutoTeleport(player);
     }
 
     private boolean canUse(Player player) {
@@ -75,22 +69,35 @@ public final class HubDoubleJumpListener implements Listener {
 
         if (player.isOnGround() && !player.getAllowFlight()) {
             player.setAllowFlight(true);
+            granted.add(player.getUniqueId());
         }
     }
 
     @EventHandler
-    public void onJoin(PlayerJoinEvent event) {
-        Bukkit.getScheduler().runTaskLater(plugin, () -> ensureFlight(event.getPlayer()), 5L);
+    public void onHubEnter(HubEnterEvent event) {
+        ensureFlight(event.getPlayer());
     }
 
+    /**
+     * Takes back the flight double jump granted so it doesn't carry over into game worlds; flight from anywhere
+     * else is left alone.
+     */
     @EventHandler
-    public void onChangedWorld(PlayerChangedWorldEvent event) {
-        Bukkit.getScheduler().runTaskLater(plugin, () -> ensureFlight(event.getPlayer()), 2L);
+    public void onHubLeave(HubLeaveEvent event) {
+        Player player = event.getPlayer();
+        if (!granted.remove(player.getUniqueId())) return;
+        if (event.getCause() == HubTransitionCause.QUIT) return;
+        GameMode gm = player.getGameMode();
+        if (gm == GameMode.CREATIVE || gm == GameMode.SPECTATOR) return;
+        if (!player.getAllowFlight()) return;
+        player.setFlying(false);
+        player.setAllowFlight(false);
     }
 
     @EventHandler
     public void onQuit(PlayerQuitEvent event) {
         cooldownUntilMs.remove(event.getPlayer().getUniqueId());
+        granted.remove(event.getPlayer().getUniqueId());
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
@@ -109,6 +116,7 @@ public final class HubDoubleJumpListener implements Listener {
         event.setCancelled(true);
         player.setFlying(false);
         player.setAllowFlight(false);
+        granted.remove(player.getUniqueId());
 
         LobbyConfig.DoubleJumpConfig c = cfg();
         if (c == null) return;
@@ -151,5 +159,6 @@ public final class HubDoubleJumpListener implements Listener {
         Long until = cooldownUntilMs.get(player.getUniqueId());
         if (until != null && until > now) return;
         player.setAllowFlight(true);
+        granted.add(player.getUniqueId());
     }
 }
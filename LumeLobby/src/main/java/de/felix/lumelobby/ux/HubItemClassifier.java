@@ -0,0 +1,101 @@
+package de.felix.lumelobby.ux;
+
+import io.papermc.paper.persistence.PersistentDataContainerView;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Locale;
+
+/**
+ * Tells hub items apart with one read of the item's persistent data (no {@code getItemMeta()} copy).
+ * Hub items carry a single {@code hub_item} marker whose value is the {@link Kind}; items handed out
+ * by older versions still carry one byte key per kind and are recognised until the loadout replaces them.
+ */
+final class HubItemClassifier {
+
+    enum Kind {
+        NONE,
+        COMPASS,
+        PLAYER_TOGGLE,
+        COSMETICS_MENU,
+        GADGET;
+
+        private final String id = name().toLowerCase(Locale.ROOT);
+
+        String id() {
+            return id;
+        }
+
+        static Kind from(String id) {
+            if (id == null) return NONE;
+            for (Kind kind : values()) {
+                if (kind != NONE && kind.id.equals(id)) return kind;
+            }
+            return NONE;
+        }
+    }
+
+    private final NamespacedKey markerKey;
+    private final NamespacedKey menuActionKey;
+    private final NamespacedKey cosmeticsActionKey;
+    private final NamespacedKey legacyCompassKey;
+    private final NamespacedKey legacyToggleKey;
+    private final NamespacedKey legacyMenuKey;
+    private final NamespacedKey legacyGadgetKey;
+
+    HubItemClassifier(Plugin plugin) {
+        this.markerKey = new NamespacedKey(plugin, "hub_item");
+        this.menuActionKey = new NamespacedKey(plugin, "hub_menu_action");
+        this.cosmeticsActionKey = new NamespacedKey(plugin, "cosmetics_action");
+        this.legacyCompassKey = new NamespacedKey(plugin, "hub_compass");
+        this.legacyToggleKey = new NamespacedKey(plugin, "hub_player_toggle");
+        this.legacyMenuKey = new NamespacedKey(plugin, "hub_cosmetics_menu");
+        this.legacyGadgetKey = new NamespacedKey(plugin, "hub_gadget");
+    }
+
+    NamespacedKey markerKey() {
+        return markerKey;
+    }
+
+    NamespacedKey menuActionKey() {
+        return menuActionKey;
+    }
+
+    NamespacedKey cosmeticsActionKey() {
+        return cosmeticsActionKey;
+    }
+
+    Kind classify(ItemStack item) {
+        if (item == null || item.isEmpty() || !item.hasItemMeta()) return Kind.NONE;
+        PersistentDataContainerView data = item.getPersistentDataContainer();
+        if (data.isEmpty()) return Kind.NONE;
+
+        String id = data.get(markerKey, PersistentDataType.STRING);
+        if (id != null) return Kind.from(id);
+
+        if (data.has(legacyCompassKey, PersistentDataType.BYTE)) return Kind.COMPASS;
+        if (data.has(legacyToggleKey, PersistentDataType.BYTE)) return Kind.PLAYER_TOGGLE;
+        if (data.has(legacyMenuKey, PersistentDataType.BYTE)) return Kind.COSMETICS_MENU;
+        if (data.has(legacyGadgetKey, PersistentDataType.BYTE)) return Kind.GADGET;
+        return Kind.NONE;
+    }
+
+    boolean isHubItem(ItemStack item) {
+        return classify(item) != Kind.NONE;
+    }
+
+    String menuAction(ItemStack item) {
+        return readString(item, menuActionKey);
+    }
+
+    String cosmeticsAction(ItemStack item) {
+        return readString(item, cosmeticsActionKey);
+    }
+
+    private static String readString(ItemStack item, NamespacedKey key) {
+        if (item == null || item.isEmpty() || !item.hasItemMeta()) return null;
+        return item.getPersistentDataContainer().get(key, PersistentDataType.STRING);
+    }
+}
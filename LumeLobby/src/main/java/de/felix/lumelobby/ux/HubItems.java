@@ -0,0 +1,171 @@
+package de.felix.lumelobby.ux;
+
+import de.felix.lumelobby.config.LobbyConfig;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * All hub items, built once per config load. Templates are never handed out directly, only as clones,
+ * and an inventory slot is only rewritten when its item isn't {@link ItemStack#isSimilar similar} to the template.
+ */
+final class HubItems {
+
+    private final ItemStack compass;
+    private final int compassSlot;
+    private final ItemStack toggleShown;
+    private final ItemStack toggleHidden;
+    private final int toggleSlot;
+    private final ItemStack cosmeticsMenu;
+    private final int cosmeticsMenuSlot;
+    private final ItemStack gadget;
+    private final int gadgetSlot;
+
+    private HubItems(ItemStack compass, int compassSlot, ItemStack toggleShown, ItemStack toggleHidden, int toggleSlot, ItemStack cosmeticsMenu, int cosmeticsMenuSlot, ItemStack gadget, int gadgetSlot) {
+        this.compass = compass;
+        this.compassSlot = compassSlot;
+        this.toggleShown = toggleShown;
+        this.toggleHidden = toggleHidden;
+        this.toggleSlot = toggleSlot;
+        this.cosmeticsMenu = cosmeticsMenu;
+        this.cosmeticsMenuSlot = cosmeticsMenuSlot;
+        this.gadget = gadget;
+        this.gadgetSlot = gadgetSlot;
+    }
+
+    static HubItems from(LobbyConfig config, HubItemClassifier classifier) {
+        var loadout = config.hubUx().loadout();
+        var compassCfg = loadout == null ? null : loadout.compass();
+        var toggleCfg = loadout == null ? null : loadout.playerToggle();
+        var cosmetics = config.hubUx().cosmetics();
+        var menuCfg = cosmetics == null ? null : cosmetics.menuItem();
+        var gadgetCfg = cosmetics == null ? null : cosmetics.gadgetItem();
+
+        NamespacedKey marker = classifier.markerKey();
+
+        ItemStack compass = null;
+        int compassSlot = 0;
+        if (compassCfg != null) {
+            compassSlot = Math.max(0, compassCfg.slot());
+            if (compassSlot > 35) compassSlot = 0;
+            compass = build(Material.COMPASS, marker, HubItemClassifier.Kind.COMPASS, compassCfg.name(), compassCfg.lore(), List.of("&7Right click to open the menu."));
+        }
+
+        ItemStack shown = null;
+        ItemStack hidden = null;
+        int toggleSlot = 8;
+        if (toggleCfg != null) {
+            toggleSlot = Math.max(0, toggleCfg.slot());
+            if (toggleSlot > 35) toggleSlot = 8;
+            shown = build(parseMaterial(toggleCfg.showMaterial(), Material.LIME_DYE), marker, HubItemClassifier.Kind.PLAYER_TOGGLE, toggleCfg.showName(), toggleCfg.showLore(), List.of("&7Right click to hide players."));
+            hidden = build(parseMaterial(toggleCfg.hideMaterial(), Material.GRAY_DYE), marker, HubItemClassifier.Kind.PLAYER_TOGGLE, toggleCfg.hideName(), toggleCfg.hideLore(), List.of("&7Right click to show players."));
+        }
+
+        ItemStack menu = null;
+        int menuSlot = 4;
+        if (menuCfg != null) {
+            menuSlot = clampSlot(menuCfg.slot());
+            menu = build(parseMaterial(menuCfg.material(), Material.ENDER_CHEST), marker, HubItemClassifier.Kind.COSMETICS_MENU, menuCfg.name(), menuCfg.lore(), List.of("&7Right click to open"));
+        }
+
+        int gadgetSlot = gadgetCfg == null ? 2 : clampSlot(gadgetCfg.slot());
+        ItemStack gadget = build(
+            parseMaterial(gadgetCfg == null ? null : gadgetCfg.material(), Material.BLAZE_ROD),
+            marker,
+            HubItemClassifier.Kind.GADGET,
+            gadgetCfg == null ? "&e&lGadget" : gadgetCfg.name(),
+            gadgetCfg == null ? null : gadgetCfg.lore(),
+            List.of("&7Right click", "&7Small boost + particles")
+        );
+
+        return new HubItems(compass, compassSlot, shown, hidden, toggleSlot, menu, menuSlot, gadget, gadgetSlot);
+    }
+
+    int compassSlot() {
+        return compassSlot;
+    }
+
+    int toggleSlot() {
+        return toggleSlot;
+    }
+
+    int cosmeticsMenuSlot() {
+        return cosmeticsMenuSlot;
+    }
+
+    int gadgetSlot() {
+        return gadgetSlot;
+    }
+
+    ItemStack compassTemplate() {
+        return compass;
+    }
+
+    ItemStack toggleTemplate(boolean hidden) {
+        return hidden ? toggleHidden : toggleShown;
+    }
+
+    ItemStack cosmeticsMenuTemplate() {
+        return cosmeticsMenu;
+    }
+
+    ItemStack gadgetTemplate() {
+        return gadget;
+    }
+
+    /**
+     * Puts a clone of the template into the slot unless the slot already holds it.
+     *
+     * @return true if the slot was written
+     */
+    static boolean ensure(PlayerInventory inventory, int slot, ItemStack template) {
+        if (template == null) return false;
+        ItemStack existing = inventory.getItem(slot);
+        if (existing != null && existing.isSimilar(template)) return false;
+        inventory.setItem(slot, template.clone());
+        return true;
+    }
+
+    static boolean isCurrent(ItemStack item, ItemStack template) {
+        return item != null && template != null && item.isSimilar(template);
+    }
+
+    private static ItemStack build(Material material, NamespacedKey marker, HubItemClassifier.Kind kind, String name, List<String> lore, List<String> defaultLore) {
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            meta.getPersistentDataContainer().set(marker, PersistentDataType.STRING, kind.id());
+            meta.setDisplayName(colorize(name));
+            List<String> lines = lore == null || lore.isEmpty() ? defaultLore : lore;
+            meta.setLore(lines.stream().map(HubItems::colorize).toList());
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+
+    private static int clampSlot(int slot) {
+        if (slot < 0) return 0;
+        if (slot > 35) return 35;
+        return slot;
+    }
+
+    private static Material parseMaterial(String raw, Material fallback) {
+        if (raw == null) return fallback;
+        try {
+            return Material.valueOf(raw.trim().toUpperCase(Locale.ROOT));
+        } catch (Exception ignored) {
+            return fallback;
+        }
+    }
+
+    private static String colorize(String text) {
+        return ChatColor.translateAlternateColorCodes('&', text == null ? "" : text);
+    }
+}
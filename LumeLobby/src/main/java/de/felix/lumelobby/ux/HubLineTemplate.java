@@ -0,0 +1,161 @@
+package de.felix.lumelobby.ux;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A config line compiled once into literal and placeholder segments (colour codes already translated).
+ * Rendering only resolves the placeholders; server-wide values come from a {@link Globals} snapshot that is
+ * captured once per update cycle and shared by all players.
+ */
+final class HubLineTemplate {
+
+    private final Object[] segments;
+    private final String literal;
+    private final boolean perPlayer;
+
+    private HubLineTemplate(Object[] segments) {
+        this.segments = segments;
+        this.literal = segments.length == 0 ? "" : (segments.length == 1 && segments[0] instanceof String s ? s : null);
+        boolean player = false;
+        for (Object segment : segments) {
+            if (segment instanceof Token token && token.perPlayer) player = true;
+        }
+        this.perPlayer = player;
+    }
+
+    static HubLineTemplate compile(String raw) {
+        String text = raw == null ? "" : raw;
+        List<Object> out = new ArrayList<>();
+        StringBuilder pending = new StringBuilder();
+
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '%') {
+                int end = text.indexOf('%', i + 1);
+                Token token = end < 0 ? null : Token.from(text.substring(i + 1, end));
+                if (token != null) {
+                    if (!pending.isEmpty()) {
+                        out.add(colorize(pending.toString()));
+                        pending.setLength(0);
+                    }
+                    out.add(token);
+                    i = end + 1;
+                    continue;
+                }
+            }
+            pending.append(c);
+            i++;
+        }
+        if (!pending.isEmpty()) out.add(colorize(pending.toString()));
+        return new HubLineTemplate(out.toArray());
+    }
+
+    /**
+     * @return true if the line contains %player%, %ping% or %world% and therefore differs per player.
+     */
+    boolean perPlayer() {
+        return perPlayer;
+    }
+
+    /**
+     * @return true if the line has no placeholders and always renders the same string.
+     */
+    boolean isStatic() {
+        return literal != null;
+    }
+
+    String render(Player player, Globals globals) {
+        if (literal != null) return literal;
+
+        StringBuilder sb = new StringBuilder(32);
+        for (Object segment : segments) {
+            if (segment instanceof String s) {
+                sb.append(s);
+                continue;
+            }
+            switch ((Token) segment) {
+                case PLAYER -> sb.append(player == null ? "" : player.getName());
+                case PING -> sb.append(player == null ? 0 : player.getPing());
+                case WORLD -> sb.append(player == null || player.getWorld() == null ? "" : player.getWorld().getName());
+                case ONLINE -> sb.append(globals.online());
+                case MAX -> sb.append(globals.max());
+                case TPS -> sb.append(globals.tps());
+                case MSPT -> sb.append(globals.mspt());
+                case DATE -> sb.append(globals.date());
+                case TIME -> sb.append(globals.time());
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String colorize(String text) {
+        return ChatColor.translateAlternateColorCodes('&', text == null ? "" : text);
+    }
+
+    private enum Token {
+        PLAYER("player", true),
+        PING("ping", true),
+        WORLD("world", true),
+        ONLINE("online", false),
+        MAX("max", false),
+        TPS("tps", false),
+        MSPT("mspt", false),
+        DATE("date", false),
+        TIME("time", false);
+
+        private final String key;
+        private final boolean perPlayer;
+
+        Token(String key, boolean perPlayer) {
+            this.key = key;
+            this.perPlayer = perPlayer;
+        }
+
+        static Token from(String key) {
+            for (Token token : values()) {
+                if (token.key.equals(key)) return token;
+            }
+            return null;
+        }
+    }
+
+    record Globals(
+        int online,
+        int max,
+        String tps,
+        String mspt,
+        String date,
+        String time
+    ) {
+        static Globals capture() {
+            double tps = currentTps();
+            return new Globals(
+                Bukkit.getOnlinePlayers().size(),
+                Bukkit.getMaxPlayers(),
+                String.format(Locale.ROOT, "%.1f", Math.min(20.0, tps)),
+                String.format(Locale.ROOT, "%.1f", tps <= 0 ? 50.0 : (1000.0 / tps)),
+                LocalDate.now().toString(),
+                LocalTime.now().withNano(0).toString()
+            );
+        }
+
+        private static double currentTps() {
+            try {
+                double[] tps = Bukkit.getTPS();
+                if (tps == null || tps.length == 0) return 20.0;
+                return tps[0];
+            } catch (Throwable ignored) {
+                return 20.0;
+            }
+        }
+    }
+}
@@ -28,13 +28,6 @@ final class HubMenuUi {
         return holder instanceof HubMenuHolder;
     }
 
-    static String actionFrom(ItemStack item, NamespacedKey key) {
-        if (item == null) return null;
-        ItemMeta meta = item.getItemMeta();
-        if (meta == null) return null;
-        return meta.getPersistentDataContainer().get(key, PersistentDataType.STRING);
-    }
-
     static void open(Player player, Plugin plugin, LobbyConfig config) {
         if (player == null) return;
         var menu = config.hubUx().menu();
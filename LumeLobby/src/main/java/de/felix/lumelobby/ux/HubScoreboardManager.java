@@ -1,7 +1,8 @@
 package de.felix.lumelobby.ux;
 
 import de.felix.lumelobby.config.LobbyConfig;
-import lombok.RequiredArgsConstructor;
+import io.papermc.paper.scoreboard.numbers.NumberFormat;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
@@ -14,39 +15,58 @@ import org.bukkit.scoreboard.Team;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
-@RequiredArgsConstructor
 final class HubScoreboardManager {
 
     private static final String OBJECTIVE_NAME = "lumehub";
     private static final int MAX_LINES = 15;
     private static final int MAX_PART = 64;
+    private static final int NO_SCORE = Integer.MIN_VALUE;
 
     private final Plugin plugin;
     private final LobbyConfig config;
     private final Map<UUID, PlayerBoard> boards = new ConcurrentHashMap<>();
     private final List<ChatColor> lineColors = Arrays.stream(ChatColor.values()).filter(ChatColor::isColor).toList();
+    private final LongAdder sentUpdates = new LongAdder();
+    private final LongAdder skippedUpdates = new LongAdder();
+    private final String title;
+    private final List<HubLineTemplate> lines;
+    private final boolean scoreNames;
+    private HubLineTemplate.Globals globals;
+
+    HubScoreboardManager(Plugin plugin, LobbyConfig config) {
+        this.plugin = plugin;
+        this.config = config;
+        this.title = colorize(config.hubUx().scoreboard().title());
+        this.lines = compileLines(config.hubUx().scoreboard().lines());
+        String backend = config.hubUx().scoreboard().backend();
+        this.scoreNames = backend != null && "scores".equalsIgnoreCase(backend.trim());
+    }
 
-    void tick(Iterable<? extends Player> onlinePlayers, HubWorldPredicate isInHubWorld) {
-        if (!enabled()) {
-            clearAll();
-            return;
-        }
+    /**
+     * Drops the global placeholder snapshot; the next render of this tick captures a fresh one.
+     */
+    void beginTick() {
+        globals = null;
+    }
 
-        for (Player player : onlinePlayers) {
-            if (player == null) continue;
-            boolean inHub = isInHubWorld.isInHub(player);
-            if (!inHub) {
-                removeIfOwned(player);
-                continue;
-            }
-            ensureAndUpdate(player);
+    void tickShared() {
+        if (!enabled()) clearAll();
+    }
+
+    void tick(Player player, boolean inHub) {
+        if (player == null) return;
+        if (!enabled()) return;
+        if (!inHub) {
+            removeIfOwned(player);
+            return;
         }
+        ensureAndUpdate(player);
     }
 
     void refresh(Player player, boolean inHub) {
@@ -73,7 +93,7 @@ final class HubScoreboardManager {
     private void ensureAndUpdate(Player player) {
         PlayerBoard existing = boards.get(player.getUniqueId());
         if (existing != null) {
-            if (player.getScoreboard() != existing.scoreboard()) {
+            if (player.getScoreboard() != existing.scoreboard) {
                 boards.remove(player.getUniqueId());
                 return;
             }
@@ -88,22 +108,29 @@ final class HubScoreboardManager {
 
         Objective objective;
         try {
-            objective = board.registerNewObjective(OBJECTIVE_NAME, Criteria.DUMMY, colorize(config.hubUx().scoreboard().title()));
+            objective = board.registerNewObjective(OBJECTIVE_NAME, Criteria.DUMMY, title);
         } catch (IllegalArgumentException already) {
             objective = board.getObjective(OBJECTIVE_NAME);
         }
         if (objective == null) return;
         objective.setDisplaySlot(DisplaySlot.SIDEBAR);
 
-        List<String> entries = new ArrayList<>();
-        Map<Integer, Team> teams = new LinkedHashMap<>();
-        for (int i = 0; i < MAX_LINES; i++) {
-            String entry = entryForLine(i);
-            entries.add(entry);
-            Team team = board.getTeam(teamName(i));
-            if (team == null) team = board.registerNewTeam(teamName(i));
-            team.addEntry(entry);
-            teams.put(i, team);
+        String[] entries = new String[MAX_LINES];
+        Team[] teams = null;
+        if (scoreNames) {
+            // Score entries carry their own display name; hide the red numbers instead of registering teams.
+            objective.numberFormat(NumberFormat.blank());
+            for (int i = 0; i < MAX_LINES; i++) entries[i] = entryForLine(i);
+        } else {
+            teams = new Team[MAX_LINES];
+            for (int i = 0; i < MAX_LINES; i++) {
+                String entry = entryForLine(i);
+                entries[i] = entry;
+                Team team = board.getTeam(teamName(i));
+                if (team == null) team = board.registerNewTeam(teamName(i));
+                team.addEntry(entry);
+                teams[i] = team;
+            }
         }
 
         PlayerBoard created = new PlayerBoard(board, objective, current, entries, teams);
@@ -115,26 +142,100 @@ final class HubScoreboardManager {
     private void updateLines(Player player, PlayerBoard pb) {
         List<String> lines = renderLines(player);
         for (int i = 0; i < MAX_LINES; i++) {
-            String entry = pb.entries().get(i);
-            Team team = pb.teams().get(i);
-            if (team == null) continue;
-
             if (i < lines.size()) {
+                setScore(pb, i, MAX_LINES - i);
                 String line = lines.get(i);
-                var parts = splitForTeam(line);
-                team.setPrefix(parts.prefix());
-                team.setSuffix(parts.suffix());
-                pb.objective().getScore(entry).setScore(MAX_LINES - i);
+                if (pb.teams != null) {
+                    var parts = splitForTeam(line);
+                    setPrefix(pb, i, parts.prefix());
+                    setSuffix(pb, i, parts.suffix());
+                } else {
+                    setCustomName(pb, i, line);
+                }
             } else {
-                team.setPrefix("");
-                team.setSuffix("");
-                pb.scoreboard().resetScores(entry);
+                if (pb.teams != null) {
+                    setPrefix(pb, i, "");
+                    setSuffix(pb, i, "");
+                }
+                resetScore(pb, i);
             }
         }
     }
 
+    private void setScore(PlayerBoard pb, int line, int score) {
+        if (pb.scores[line] == score) {
+            skippedUpdates.increment();
+            return;
+        }
+        pb.objective.getScore(pb.entries[line]).setScore(score);
+        pb.scores[line] = score;
+        sentUpdates.increment();
+    }
+
+    private void resetScore(PlayerBoard pb, int line) {
+        if (pb.scores[line] == NO_SCORE) {
+            skippedUpdates.increment();
+            return;
+        }
+        pb.scoreboard.resetScores(pb.entries[line]);
+        pb.scores[line] = NO_SCORE;
+        pb.names[line] = null;
+        sentUpdates.increment();
+    }
+
+    private void setCustomName(PlayerBoard pb, int line, String text) {
+        if (text.equals(pb.names[line])) {
+            skippedUpdates.increment();
+            return;
+        }
+        pb.objective.getScore(pb.entries[line]).customName(LegacyComponentSerializer.legacySection().deserialize(text));
+        pb.names[line] = text;
+        sentUpdates.increment();
+    }
+
+    private void setPrefix(PlayerBoard pb, int line, String prefix) {
+        if (prefix.equals(pb.prefixes[line])) {
+            skippedUpdates.increment();
+            return;
+        }
+        pb.teams[line].setPrefix(prefix);
+        pb.prefixes[line] = prefix;
+        sentUpdates.increment();
+    }
+
+    private void setSuffix(PlayerBoard pb, int line, String suffix) {
+        if (suffix.equals(pb.suffixes[line])) {
+            skippedUpdates.increment();
+            return;
+        }
+        pb.teams[line].setSuffix(suffix);
+        pb.suffixes[line] = suffix;
+        sentUpdates.increment();
+    }
+
+    long sentUpdates() {
+        return sentUpdates.sum();
+    }
+
+    long skippedUpdates() {
+        return skippedUpdates.sum();
+    }
+
     private List<String> renderLines(Player player) {
-        List<String> raw = config.hubUx().scoreboard().lines();
+        HubLineTemplate.Globals snapshot = globals;
+        if (snapshot == null) {
+            snapshot = HubLineTemplate.Globals.capture();
+            globals = snapshot;
+        }
+
+        List<String> out = new ArrayList<>(lines.size());
+        for (HubLineTemplate line : lines) {
+            out.add(line.render(player, snapshot));
+        }
+        return out;
+    }
+
+    private static List<HubLineTemplate> compileLines(List<String> raw) {
         if (raw == null || raw.isEmpty()) {
             raw = List.of(
                 "&b&lLumeplay",
@@ -152,56 +253,19 @@ final class HubScoreboardManager {
             );
         }
 
-        List<String> out = new ArrayList<>();
+        List<HubLineTemplate> out = new ArrayList<>();
         for (String line : raw) {
-            if (line == null) line = "";
-            String replaced = applyPlaceholders(line, player);
-            out.add(colorize(replaced));
+            out.add(HubLineTemplate.compile(line));
             if (out.size() >= MAX_LINES) break;
         }
-        return out;
-    }
-
-    private String applyPlaceholders(String line, Player player) {
-        String out = line;
-        out = out.replace("%player%", player.getName());
-        out = out.replace("%online%", String.valueOf(Bukkit.getOnlinePlayers().size()));
-        out = out.replace("%max%", String.valueOf(Bukkit.getMaxPlayers()));
-        out = out.replace("%ping%", String.valueOf(player.getPing()));
-        out = out.replace("%world%", player.getWorld() == null ? "" : player.getWorld().getName());
-        out = out.replace("%time%", java.time.LocalTime.now().withNano(0).toString());
-        out = out.replace("%date%", java.time.LocalDate.now().toString());
-        out = out.replace("%tps%", formatTps());
-        out = out.replace("%mspt%", formatMspt());
-        return out;
-    }
-
-    private static String formatTps() {
-        try {
-            double[] tps = Bukkit.getTPS();
-            if (tps == null || tps.length == 0) return "20.0";
-            return String.format(java.util.Locale.ROOT, "%.1f", Math.min(20.0, tps[0]));
-        } catch (Throwable ignored) {
-            return "20.0";
-        }
-    }
-
-    private static String formatMspt() {
-        try {
-            double[] tps = Bukkit.getTPS();
-            if (tps == null || tps.length == 0) return "50.0";
-            double v = tps[0] <= 0 ? 50.0 : (1000.0 / tps[0]);
-            return String.format(java.util.Locale.ROOT, "%.1f", v);
-        } catch (Throwable ignored) {
-            return "50.0";
-        }
+        return List.copyOf(out);
     }
 
     private void removeIfOwned(Player player) {
         PlayerBoard pb = boards.remove(player.getUniqueId());
         if (pb == null) return;
-        if (player.getScoreboard() != pb.scoreboard()) return;
-        player.setScoreboard(pb.previousScoreboard());
+        if (player.getScoreboard() != pb.scoreboard) return;
+        player.setScoreboard(pb.previousScoreboard);
     }
 
     private String entryForLine(int i) {
@@ -236,17 +300,32 @@ final class HubScoreboardManager {
         return new TeamParts(prefix, suffix);
     }
 
-    private record PlayerBoard(
-        Scoreboard scoreboard,
-        Objective objective,
-        Scoreboard previousScoreboard,
-        List<String> entries,
-        Map<Integer, Team> teams
-    ) {}
-
-    @FunctionalInterface
-    interface HubWorldPredicate {
-        boolean isInHub(Player player);
+    /**
+     * Remembers the last prefix/suffix/name/score sent per line, so unchanged lines don't send packets again.
+     * {@code teams} is null for the score-name backend.
+     */
+    private static final class PlayerBoard {
+        private final Scoreboard scoreboard;
+        private final Objective objective;
+        private final Scoreboard previousScoreboard;
+        private final String[] entries;
+        private final Team[] teams;
+        private final String[] prefixes = new String[MAX_LINES];
+        private final String[] suffixes = new String[MAX_LINES];
+        private final String[] names = new String[MAX_LINES];
+        private final int[] scores = new int[MAX_LINES];
+
+        private PlayerBoard(Scoreboard scoreboard, Objective objective, Scoreboard previousScoreboard, String[] entries, Team[] teams) {
+            this.scoreboard = scoreboard;
+            this.objective = objective;
+            this.previousScoreboard = previousScoreboard;
+            this.entries = entries;
+            this.teams = teams;
+            // Freshly registered teams start with empty prefix/suffix and no score.
+            Arrays.fill(prefixes, "");
+            Arrays.fill(suffixes, "");
+            Arrays.fill(scores, NO_SCORE);
+        }
     }
 
     private record TeamParts(String prefix, String suffix) {}
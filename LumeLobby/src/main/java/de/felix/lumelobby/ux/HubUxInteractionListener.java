@@ -1,7 +1,6 @@
 package de.felix.lumelobby.ux;
 
 import lombok.RequiredArgsConstructor;
-import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -26,9 +25,11 @@ public final class HubUxInteractionListener implements Listener {
     public void onInteract(PlayerInteractEvent event) {
         HubUxManager hubUx = this.hubUx.get();
         if (hubUx == null) return;
+        HubItemClassifier.Kind kind = hubUx.classifier().classify(event.getItem());
+        if (kind == HubItemClassifier.Kind.NONE) return;
         Player player = event.getPlayer();
-        boolean handled = hubUx.loadoutManager().handleInteract(player, event.getHand(), event.getAction(), event.getItem());
-        if (!handled) handled = hubUx.cosmeticsManager().handleInteract(player, event.getItem());
+        boolean handled = hubUx.loadoutManager().handleInteract(player, event.getHand(), event.getAction(), kind);
+        if (!handled) handled = hubUx.cosmeticsManager().handleInteract(player, kind);
         if (handled) event.setCancelled(true);
     }
 
@@ -38,14 +39,8 @@ public final class HubUxInteractionListener implements Listener {
         if (hubUx == null) return;
         Player player = event.getPlayer();
         if (!hubUx.loadoutManager().isInHub(player)) return;
-        if (hubUx.loadoutManager().isHubCompass(event.getMainHandItem())
-            || hubUx.loadoutManager().isHubCompass(event.getOffHandItem())
-            || hubUx.loadoutManager().isPlayerToggleItem(event.getMainHandItem())
-            || hubUx.loadoutManager().isPlayerToggleItem(event.getOffHandItem())
-            || hubUx.cosmeticsManager().isCosmeticsMenuItem(event.getMainHandItem())
-            || hubUx.cosmeticsManager().isCosmeticsMenuItem(event.getOffHandItem())
-            || hubUx.cosmeticsManager().isGadgetItem(event.getMainHandItem())
-            || hubUx.cosmeticsManager().isGadgetItem(event.getOffHandItem())) {
+        HubItemClassifier classifier = hubUx.classifier();
+        if (classifier.isHubItem(event.getMainHandItem()) || classifier.isHubItem(event.getOffHandItem())) {
             event.setCancelled(true);
         }
     }
@@ -57,10 +52,7 @@ public final class HubUxInteractionListener implements Listener {
         Player player = event.getPlayer();
         if (!hubUx.loadoutManager().isInHub(player)) return;
         ItemStack item = event.getItemDrop() == null ? null : event.getItemDrop().getItemStack();
-        if (!hubUx.loadoutManager().isHubCompass(item)
-            && !hubUx.loadoutManager().isPlayerToggleItem(item)
-            && !hubUx.cosmeticsManager().isCosmeticsMenuItem(item)
-            && !hubUx.cosmeticsManager().isGadgetItem(item)) return;
+        if (!hubUx.classifier().isHubItem(item)) return;
         event.setCancelled(true);
     }
 
@@ -72,8 +64,7 @@ public final class HubUxInteractionListener implements Listener {
 
         if (HubMenuUi.isHubMenu(event.getView().getTopInventory())) {
             event.setCancelled(true);
-            NamespacedKey actionKey = new NamespacedKey(plugin, "hub_menu_action");
-            String action = HubMenuUi.actionFrom(event.getCurrentItem(), actionKey);
+            String action = hubUx.classifier().menuAction(event.getCurrentItem());
             if (action == null) return;
             switch (action) {
                 case "skywars" -> {
@@ -92,11 +83,7 @@ public final class HubUxInteractionListener implements Listener {
         }
 
         if (!hubUx.loadoutManager().isInHub(player)) return;
-        ItemStack it = event.getCurrentItem();
-        if (!hubUx.loadoutManager().isHubCompass(it)
-            && !hubUx.loadoutManager().isPlayerToggleItem(it)
-            && !hubUx.cosmeticsManager().isCosmeticsMenuItem(it)
-            && !hubUx.cosmeticsManager().isGadgetItem(it)) return;
+        if (!hubUx.classifier().isHubItem(event.getCurrentItem())) return;
         event.setCancelled(true);
     }
 
@@ -112,10 +99,7 @@ public final class HubUxInteractionListener implements Listener {
 
         if (!hubUx.loadoutManager().isInHub(player)) return;
         for (ItemStack item : event.getNewItems().values()) {
-            if (hubUx.loadoutManager().isHubCompass(item)
-                || hubUx.loadoutManager().isPlayerToggleItem(item)
-                || hubUx.cosmeticsManager().isCosmeticsMenuItem(item)
-                || hubUx.cosmeticsManager().isGadgetItem(item)) {
+            if (hubUx.classifier().isHubItem(item)) {
                 event.setCancelled(true);
                 return;
             }
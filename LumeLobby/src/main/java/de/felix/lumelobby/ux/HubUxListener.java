@@ -1,12 +1,26 @@
 package de.felix.lumelobby.ux;
 
+import de.felix.lumelobby.api.HubEnterEvent;
+import de.felix.lumelobby.api.HubLeaveEvent;
+import de.felix.lumelobby.api.HubTransitionCause;
 import lombok.RequiredArgsConstructor;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerGameModeChangeEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
 import org.bukkit.plugin.Plugin;
 
 import java.util.function.Supplier;
@@ -17,23 +31,95 @@ public final class HubUxListener implements Listener {
     private final Plugin plugin;
     private final Supplier<HubUxManager> hubUx;
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        HubUxManager ux = hubUx.get();
+        if (ux == null) return;
+        ux.preload(event.getUniqueId());
+    }
+
     @EventHandler
     public void onJoin(PlayerJoinEvent event) {
+        HubUxManager current = hubUx.get();
+        if (current != null) current.onJoin(event.getPlayer());
         Bukkit.getScheduler().runTaskLater(plugin, () -> {
             HubUxManager ux = hubUx.get();
             if (ux == null) return;
-            ux.refresh(event.getPlayer());
             ux.loadoutManager().onOtherPlayerJoin(event.getPlayer());
         }, 5L);
     }
 
     @EventHandler
-    public void onChangedWorld(PlayerChangedWorldEvent event) {
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            HubUxManager ux = hubUx.get();
-            if (ux == null) return;
-            ux.refresh(event.getPlayer());
-        }, 1L);
+    public void onHubEnter(HubEnterEvent event) {
+        // On join, give the preloaded cosmetics a moment before the first render.
+        if (event.getCause() == HubTransitionCause.JOIN) {
+            Bukkit.getScheduler().runTaskLater(plugin, () -> refresh(event.getPlayer()), 5L);
+            return;
+        }
+        refresh(event.getPlayer());
+    }
+
+    @EventHandler
+    public void onHubLeave(HubLeaveEvent event) {
+        if (event.getCause() == HubTransitionCause.QUIT) return;
+        refresh(event.getPlayer());
+    }
+
+    private void refresh(Player player) {
+        HubUxManager ux = hubUx.get();
+        if (ux == null || !player.isOnline()) return;
+        ux.refresh(player);
+    }
+
+    private void markDirty(HumanEntity entity) {
+        if (!(entity instanceof Player player)) return;
+        HubUxManager ux = hubUx.get();
+        if (ux == null) return;
+        ux.markItemsDirty(player);
+    }
+
+    // Anything that can move, remove or replace hub items marks the player for a repair on the next tick.
+    // Plugins calling setItem directly fire no event; closing their GUI and the slow audit cover that.
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClick(InventoryClickEvent event) {
+        markDirty(event.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        markDirty(event.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(InventoryCloseEvent event) {
+        markDirty(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDrop(PlayerDropItemEvent event) {
+        markDirty(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onSwapHands(PlayerSwapHandItemsEvent event) {
+        markDirty(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(PlayerDeathEvent event) {
+        markDirty(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        markDirty(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onGameModeChange(PlayerGameModeChangeEvent event) {
+        markDirty(event.getPlayer());
     }
 
     @EventHandler
@@ -3,12 +3,17 @@ package de.felix.lumelobby.ux;
 import de.felix.lumelobby.api.LumeLobbyApi;
 import de.felix.lumelobby.config.LobbyConfig;
 import de.felix.lumelobby.world.HubManager;
+import de.felix.lumelobby.world.HubMembershipIndex;
 import lombok.RequiredArgsConstructor;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitTask;
 
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
 @RequiredArgsConstructor
 public final class HubUxManager {
 
@@ -16,25 +21,35 @@ public final class HubUxManager {
     private final LobbyConfig config;
     private final HubManager hubManager;
     private final LumeLobbyApi api;
+    private final HubMembershipIndex membership;
 
     private final HubScoreboardManager scoreboardManager;
     private final HubBossBarManager bossBarManager;
     private final HubLoadoutManager loadoutManager;
     private final HubCosmeticsManager cosmeticsManager;
+    private final HubItemClassifier classifier;
+    private final HubVisibilityEngine visibility;
     private volatile BukkitTask task;
     private volatile boolean stoppedDueToError;
     private volatile long tickCounter;
 
-    public static HubUxManager create(Plugin plugin, LobbyConfig config, HubManager hubManager, LumeLobbyApi api) {
+    public static HubUxManager create(Plugin plugin, LobbyConfig config, HubManager hubManager, LumeLobbyApi api, HubMembershipIndex membership) {
+        HubItemClassifier classifier = new HubItemClassifier(plugin);
+        HubItems items = HubItems.from(config, classifier);
+        var toggleCfg = config.hubUx().loadout() == null ? null : config.hubUx().loadout().playerToggle();
+        HubVisibilityEngine visibility = new HubVisibilityEngine(plugin, toggleCfg == null ? 200 : toggleCfg.opsPerTick());
         return new HubUxManager(
             plugin,
             config,
             hubManager,
             api,
+            membership,
             new HubScoreboardManager(plugin, config),
             new HubBossBarManager(plugin, config),
-            new HubLoadoutManager(plugin, config, hubManager),
-            new HubCosmeticsManager(plugin, config, api)
+            new HubLoadoutManager(plugin, config, hubManager, membership, items, classifier, visibility),
+            new HubCosmeticsManager(plugin, config, api, items, classifier),
+            classifier,
+            visibility
         );
     }
 
@@ -53,22 +68,51 @@ public final class HubUxManager {
         if (t != null) t.cancel();
         scoreboardManager.clearAll();
         bossBarManager.stop();
+        visibility.revealAll();
         cosmeticsManager.shutdown();
     }
 
     public void refresh(Player player) {
         boolean inHub = isInHub(player);
         scoreboardManager.refresh(player, inHub);
+        bossBarManager.tick(player, inHub);
         loadoutManager.refresh(player, inHub);
+        cosmeticsManager.ensureItems(player, inHub);
+    }
+
+    /**
+     * Queues a hub item check for the next tick (see {@link HubUxListener}).
+     */
+    public void markItemsDirty(Player player) {
+        loadoutManager.markDirty(player);
+    }
+
+    public void preload(UUID id) {
+        cosmeticsManager.preload(id);
+    }
+
+    public void onJoin(Player player) {
+        cosmeticsManager.onJoin(player);
     }
 
     public void onQuit(Player player) {
         scoreboardManager.refresh(player, false);
         bossBarManager.onQuit(player);
-        loadoutManager.onExitHub(player);
+        loadoutManager.onQuit(player);
         cosmeticsManager.onQuit(player);
     }
 
+    public List<String> statusLines() {
+        long sent = scoreboardManager.sentUpdates();
+        long skipped = scoreboardManager.skippedUpdates();
+        long total = sent + skipped;
+        String ratio = total == 0 ? "0.0" : String.format(Locale.ROOT, "%.1f", skipped * 100.0 / total);
+        return List.of(
+            "Sidebar updates: sent " + sent + " | skipped " + skipped + " (" + ratio + "%)",
+            "Visibility jobs queued: " + visibility.pendingJobs()
+        );
+    }
+
     HubLoadoutManager loadoutManager() {
         return loadoutManager;
     }
@@ -77,28 +121,57 @@ public final class HubUxManager {
         return cosmeticsManager;
     }
 
+    HubItemClassifier classifier() {
+        return classifier;
+    }
+
+    private void repairItems(Player player, boolean inHub) {
+        loadoutManager.ensureItemsTick(player, inHub);
+        cosmeticsManager.ensureItems(player, inHub);
+    }
+
     private void tick() {
         if (stoppedDueToError) return;
-        tickCounter++;
+        long tick = ++tickCounter;
         var online = Bukkit.getOnlinePlayers();
         try {
             int scoreboardTicks = Math.max(1, config.hubUx().scoreboard().updateTicks());
             var cosmeticsCfg = config.hubUx().cosmetics();
             boolean cosmeticsEnabled = cosmeticsCfg == null || cosmeticsCfg.enabled();
             int cosmeticsTicks = cosmeticsCfg == null ? 2 : Math.max(1, cosmeticsCfg.updateTicks());
+            var loadoutCfg = config.hubUx().loadout();
+            int auditTicks = loadoutCfg == null ? 100 : Math.max(1, loadoutCfg.auditTicks());
+
+            scoreboardManager.beginTick();
+            visibility.tick();
 
-            if (tickCounter % scoreboardTicks == 0) {
-                scoreboardManager.tick(online, this::isInHub);
-                bossBarManager.tick(online, this::isInHub);
+            for (UUID id : loadoutManager.drainDirty()) {
+                Player player = Bukkit.getPlayer(id);
+                if (player != null) repairItems(player, isInHub(player));
             }
 
+            // Shared state runs once per interval; per-player work is sharded so every tick handles ~1/N of the players.
+            boolean sharedDue = tick % scoreboardTicks == 0;
+            if (sharedDue) scoreboardManager.tickShared();
+            bossBarManager.tickShared(sharedDue);
+
             for (Player player : online) {
+                if (player == null) continue;
+                int shard = TickShards.shardOf(player.getUniqueId());
                 boolean inHub = isInHub(player);
-                loadoutManager.ensureItemsTick(player, inHub);
-            }
-            if (cosmeticsEnabled && tickCounter % cosmeticsTicks == 0) {
-                cosmeticsManager.tick(online, this::isInHub);
+
+                if (TickShards.due(shard, tick, scoreboardTicks)) {
+                    scoreboardManager.tick(player, inHub);
+                    bossBarManager.tick(player, inHub);
+                }
+                if (TickShards.due(shard, tick, auditTicks)) {
+                    repairItems(player, inHub);
+                }
+                if (cosmeticsEnabled && TickShards.due(shard, tick, cosmeticsTicks)) {
+                    cosmeticsManager.tick(player, inHub);
+                }
             }
+            cosmeticsManager.flushParticles();
         } catch (NoClassDefFoundError e) {
             stoppedDueToError = true;
             plugin.getLogger().severe("[HubUx] Missing class at runtime: " + e.getMessage());
@@ -118,28 +191,7 @@ public final class HubUxManager {
     private boolean isInHub(Player player) {
         if (player == null) return false;
         if (!hubManager.enabled()) return false;
-        if (api != null && api.shouldBypassAutoTeleport(player)) return false;
-        if (player.getWorld() == null) return false;
-
-        String worldName = player.getWorld().getName();
-        if (worldName == null) return false;
-
-        var worlds = config.hubUx() == null ? null : config.hubUx().worlds();
-        if (worlds != null && !worlds.isEmpty()) {
-            for (String w : worlds) {
-                if (w == null || w.isBlank()) continue;
-                if (w.equalsIgnoreCase(worldName)) return true;
-            }
-            return false;
-        }
-
-        String hubWorld = config.hub().worldName();
-        if (hubWorld != null && !hubWorld.isBlank() && hubWorld.equalsIgnoreCase(worldName)) return true;
-
-        if (config.lobby() != null && config.lobby().sameAsHub()) {
-            String lobbyWorld = config.lobby().worldName();
-            return lobbyWorld != null && !lobbyWorld.isBlank() && lobbyWorld.equalsIgnoreCase(worldName);
-        }
-        return false;
+        if (!membership.isInHubUx(player)) return false;
+        return api == null || !api.shouldBypassAutoTeleport(player);
     }
 }
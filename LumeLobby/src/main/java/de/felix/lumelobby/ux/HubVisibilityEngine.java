@@ -0,0 +1,163 @@
+package de.felix.lumelobby.ux;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Applies the "hide players" toggle. Keeps an index of viewers that hide everyone else, so a join only touches
+ * those viewers instead of every online player. A toggle becomes a sweep job over the online players;
+ * the {@code opsPerTick} hide/show calls per tick are shared round robin across all queued jobs, so every toggle
+ * starts taking effect right away instead of waiting behind earlier sweeps.
+ * <p>
+ * Every call re-checks the viewer's current choice, so a toggle that is flipped back before its sweep finished
+ * simply stops doing work. Main thread only.
+ */
+final class HubVisibilityEngine {
+
+    private final Plugin plugin;
+    private final int opsPerTick;
+    private final Set<UUID> hiders = new HashSet<>();
+    private final ArrayDeque<Job> jobs = new ArrayDeque<>();
+    private final Map<UUID, Job> sweepByViewer = new HashMap<>();
+
+    HubVisibilityEngine(Plugin plugin, int opsPerTick) {
+        this.plugin = plugin;
+        this.opsPerTick = Math.max(1, opsPerTick);
+    }
+
+    boolean isHiding(Player viewer) {
+        return viewer != null && hiders.contains(viewer.getUniqueId());
+    }
+
+    void setHiding(Player viewer, boolean hide) {
+        if (viewer == null) return;
+        UUID id = viewer.getUniqueId();
+        boolean changed = hide ? hiders.add(id) : hiders.remove(id);
+        if (!changed) return;
+
+        Job previous = sweepByViewer.remove(id);
+        if (previous != null) previous.cancelled = true;
+
+        List<UUID> targets = new ArrayList<>();
+        for (Player other : Bukkit.getOnlinePlayers()) {
+            if (other != viewer) targets.add(other.getUniqueId());
+        }
+        if (targets.isEmpty()) return;
+        Job job = new Job(id, true, targets);
+        sweepByViewer.put(id, job);
+        jobs.add(job);
+    }
+
+    /**
+     * Hides a new player from every current hider.
+     */
+    void onJoin(Player joined) {
+        if (joined == null || hiders.isEmpty()) return;
+        List<UUID> viewers = new ArrayList<>(hiders);
+        viewers.remove(joined.getUniqueId());
+        if (viewers.isEmpty()) return;
+        jobs.add(new Job(joined.getUniqueId(), false, viewers));
+    }
+
+    void onQuit(Player player) {
+        if (player == null) return;
+        UUID id = player.getUniqueId();
+        hiders.remove(id);
+        Job sweep = sweepByViewer.remove(id);
+        if (sweep != null) sweep.cancelled = true;
+        // Jobs that still list this player as a target skip it once it's offline.
+    }
+
+    void tick() {
+        int budget = opsPerTick;
+        while (budget > 0 && !jobs.isEmpty()) {
+            // Round robin: every queued job gets a slice, unfinished ones go back to the end of the queue.
+            int slice = Math.max(1, budget / jobs.size());
+            for (int i = jobs.size(); i > 0 && budget > 0; i--) {
+                Job job = jobs.poll();
+                if (job.cancelled) continue;
+
+                Player fixed = Bukkit.getPlayer(job.fixed);
+                if (fixed == null) {
+                    finish(job);
+                    continue;
+                }
+                int ops = Math.min(slice, budget);
+                while (ops > 0 && job.next < job.others.size()) {
+                    Player other = Bukkit.getPlayer(job.others.get(job.next++));
+                    if (other == null || other == fixed) continue;
+                    Player viewer = job.fixedIsViewer ? fixed : other;
+                    Player target = job.fixedIsViewer ? other : fixed;
+                    apply(viewer, target);
+                    ops--;
+                    budget--;
+                }
+                if (job.next >= job.others.size()) finish(job);
+                else jobs.add(job);
+            }
+        }
+    }
+
+    /**
+     * Shows everyone again right away (HubUx stop / reload).
+     */
+    void revealAll() {
+        jobs.clear();
+        sweepByViewer.clear();
+        for (UUID id : hiders) {
+            Player viewer = Bukkit.getPlayer(id);
+            if (viewer == null) continue;
+            for (Player other : Bukkit.getOnlinePlayers()) {
+                if (other == viewer) continue;
+                try {
+                    viewer.showPlayer(plugin, other);
+                } catch (Exception ignored) {
+                }
+            }
+        }
+        hiders.clear();
+    }
+
+    int pendingJobs() {
+        return jobs.size();
+    }
+
+    private void apply(Player viewer, Player target) {
+        try {
+            if (hiders.contains(viewer.getUniqueId())) viewer.hidePlayer(plugin, target);
+            else viewer.showPlayer(plugin, target);
+        } catch (Exception ignored) {
+        }
+    }
+
+    private void finish(Job job) {
+        if (job.fixedIsViewer) sweepByViewer.remove(job.fixed, job);
+    }
+
+    /**
+     * One player against a list of others: a viewer's sweep over all targets, or a joined target against all hiders.
+     */
+    private static final class Job {
+        private final UUID fixed;
+        private final boolean fixedIsViewer;
+        private final List<UUID> others;
+        private int next;
+        private boolean cancelled;
+
+        private Job(UUID fixed, boolean fixedIsViewer, List<UUID> others) {
+            this.fixed = fixed;
+            this.fixedIsViewer = fixedIsViewer;
+            this.others = others;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package de.felix.lumelobby.ux;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cosmetic preferences in an SQLite database (the driver ships with Paper).
+ * <p>
+ * Toggles are coalesced per player and written by {@link #flush()} in one transaction. The database runs in WAL
+ * mode with a busy timeout, so several server processes on the same host can point at the same file; there is no
+ * cache besides not-yet-flushed writes, so a lookup always sees the other servers' latest state.
+ */
+final class SqliteCosmeticsStore implements CosmeticsStore {
+
+    static final String DRIVER = "org.sqlite.JDBC";
+    static final String DEFAULT_FILE = "cosmetics.db";
+
+    private static final String TABLE = "lumelobby_cosmetics";
+
+    private final File file;
+    private final int busyTimeoutMs;
+    private final Object lock = new Object();
+    private final Map<UUID, Integer> pending = new ConcurrentHashMap<>();
+
+    private Connection connection;
+    private boolean closed;
+
+    SqliteCosmeticsStore(File file, int busyTimeoutMs) {
+        this.file = file;
+        this.busyTimeoutMs = busyTimeoutMs;
+    }
+
+    static boolean driverAvailable() {
+        try {
+            Class.forName(DRIVER);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "sqlite";
+    }
+
+    @Override
+    public boolean shared() {
+        return true;
+    }
+
+    @Override
+    public boolean exists() throws IOException {
+        if (!file.exists()) return false;
+        synchronized (lock) {
+            try (Statement st = connection().createStatement();
+                 ResultSet rs = st.executeQuery("SELECT 1 FROM " + TABLE + " LIMIT 1")) {
+                return rs.next();
+            } catch (SQLException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void open() throws IOException {
+        synchronized (lock) {
+            connection();
+        }
+    }
+
+    @Override
+    public int load(UUID id) throws IOException {
+        if (id == null) return 0;
+        Integer unsent = pending.get(id);
+        if (unsent != null) return unsent;
+        synchronized (lock) {
+            if (closed) return 0;
+            try (PreparedStatement ps = connection().prepareStatement("SELECT mask FROM " + TABLE + " WHERE uuid = ?")) {
+                ps.setString(1, id.toString());
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            } catch (SQLException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void append(UUID id, int mask) {
+        if (id == null) return;
+        pending.put(id, mask);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        synchronized (lock) {
+            if (closed || pending.isEmpty()) return;
+            List<Map.Entry<UUID, Integer>> batch = new ArrayList<>(pending.entrySet().size());
+            for (Map.Entry<UUID, Integer> e : pending.entrySet()) batch.add(Map.entry(e.getKey(), e.getValue()));
+            write(batch);
+            // Keep toggles that came in while writing.
+            for (Map.Entry<UUID, Integer> e : batch) pending.remove(e.getKey(), e.getValue());
+        }
+    }
+
+    /**
+     * Imports only into an empty table, checked in the same write transaction: servers sharing the database may
+     * run the one-time import at the same time, and a later one must never touch rows an earlier one wrote.
+     */
+    @Override
+    public boolean replaceAll(Map<UUID, Integer> masks) throws IOException {
+        synchronized (lock) {
+            if (closed) return false;
+            pending.clear();
+            Connection c = connection();
+            try (Statement st = c.createStatement()) {
+                // Takes the write lock up front, so two importers can't both see an empty table.
+                st.execute("BEGIN IMMEDIATE");
+                boolean done = false;
+                try {
+                    try (ResultSet rs = st.executeQuery("SELECT 1 FROM " + TABLE + " LIMIT 1")) {
+                        if (rs.next()) return false;
+                    }
+                    upsert(c, new ArrayList<>(masks.entrySet()));
+                    st.execute("COMMIT");
+                    done = true;
+                    return true;
+                } finally {
+                    if (!done) st.execute("ROLLBACK");
+                }
+            } catch (SQLException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            try {
+                flush();
+            } catch (IOException e) {
+                // Logged by the caller's last flush; nothing else to do on shutdown.
+            }
+            closed = true;
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                }
+                connection = null;
+            }
+        }
+    }
+
+    private void write(List<Map.Entry<UUID, Integer>> batch) throws IOException {
+        Connection c = connection();
+        try {
+            c.setAutoCommit(false);
+            upsert(c, batch);
+            c.commit();
+        } catch (SQLException e) {
+            try {
+                c.rollback();
+            } catch (SQLException ignored) {
+            }
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            try {
+                c.setAutoCommit(true);
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    private static void upsert(Connection c, List<Map.Entry<UUID, Integer>> batch) throws SQLException {
+        long now = System.currentTimeMillis();
+        try (PreparedStatement ps = c.prepareStatement(
+            "INSERT INTO " + TABLE + " (uuid, mask, updated_at) VALUES (?, ?, ?) "
+                + "ON CONFLICT(uuid) DO UPDATE SET mask = excluded.mask, updated_at = excluded.updated_at")) {
+            for (Map.Entry<UUID, Integer> e : batch) {
+                ps.setString(1, e.getKey().toString());
+                ps.setInt(2, e.getValue());
+                ps.setLong(3, now);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private Connection connection() throws IOException {
+        if (closed) throw new IOException("store closed");
+        if (connection != null) return connection;
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists()) parent.mkdirs();
+            Connection c = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+            try (Statement st = c.createStatement()) {
+                st.execute("PRAGMA busy_timeout = " + busyTimeoutMs);
+                st.execute("PRAGMA journal_mode = WAL");
+                st.execute("PRAGMA synchronous = NORMAL");
+                st.execute("CREATE TABLE IF NOT EXISTS " + TABLE
+                    + " (uuid TEXT PRIMARY KEY NOT NULL, mask INTEGER NOT NULL, updated_at INTEGER NOT NULL) WITHOUT ROWID");
+            }
+            connection = c;
+            return c;
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+}
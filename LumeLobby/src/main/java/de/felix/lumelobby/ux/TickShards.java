@@ -0,0 +1,26 @@
+package de.felix.lumelobby.ux;
+
+import java.util.UUID;
+
+/**
+ * Spreads per-player work over an interval: every player lands in a stable bucket derived from their UUID,
+ * and a subsystem with interval N only handles the players whose bucket matches the current tick.
+ */
+final class TickShards {
+
+    private TickShards() {
+    }
+
+    static int shardOf(UUID id) {
+        long h = id.getMostSignificantBits() ^ id.getLeastSignificantBits();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) (h & 0x7fffffffL);
+    }
+
+    static boolean due(int shard, long tick, int interval) {
+        if (interval <= 1) return true;
+        return shard % interval == tick % interval;
+    }
+}
@@ -0,0 +1,115 @@
+package de.felix.lumelobby.ux;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The original cosmetics.yml format ({@code <uuid>.<cosmetic>: true/false}). Keeps every player in memory
+ * and rewrites the whole file on flush; fine for small servers, use the binary or sqlite store otherwise.
+ */
+final class YamlCosmeticsStore implements CosmeticsStore {
+
+    private final File file;
+    private final String[] ids;
+    private final Map<UUID, Integer> masks = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private volatile boolean dirty;
+    private boolean opened;
+
+    /**
+     * @param ids cosmetic id per mask bit
+     */
+    YamlCosmeticsStore(File file, String[] ids) {
+        this.file = file;
+        this.ids = ids.clone();
+    }
+
+    @Override
+    public String name() {
+        return "yaml";
+    }
+
+    @Override
+    public boolean exists() {
+        return file.exists();
+    }
+
+    @Override
+    public void open() {
+        synchronized (lock) {
+            if (opened) return;
+            opened = true;
+            if (!file.exists()) return;
+            YamlConfiguration yml = YamlConfiguration.loadConfiguration(file);
+            for (String key : yml.getKeys(false)) {
+                UUID uuid;
+                try {
+                    uuid = UUID.fromString(key);
+                } catch (Exception ignored) {
+                    continue;
+                }
+                int mask = 0;
+                for (int bit = 0; bit < ids.length; bit++) {
+                    if (yml.getBoolean(key + "." + ids[bit], false)) mask |= 1 << bit;
+                }
+                masks.put(uuid, mask);
+            }
+        }
+    }
+
+    @Override
+    public int load(UUID id) {
+        if (id == null) return 0;
+        open();
+        Integer mask = masks.get(id);
+        return mask == null ? 0 : mask;
+    }
+
+    @Override
+    public void append(UUID id, int mask) {
+        if (id == null) return;
+        masks.put(id, mask);
+        dirty = true;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        synchronized (lock) {
+            if (!dirty) return;
+            dirty = false;
+            YamlConfiguration yml = new YamlConfiguration();
+            for (Map.Entry<UUID, Integer> e : masks.entrySet()) {
+                String root = e.getKey().toString();
+                for (int bit = 0; bit < ids.length; bit++) {
+                    yml.set(root + "." + ids[bit], (e.getValue() & (1 << bit)) != 0);
+                }
+            }
+            yml.save(file);
+        }
+    }
+
+    @Override
+    public boolean replaceAll(Map<UUID, Integer> replacement) throws IOException {
+        synchronized (lock) {
+            opened = true;
+            masks.clear();
+            masks.putAll(replacement);
+            dirty = true;
+            flush();
+            return true;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush();
+        } catch (IOException ignored) {
+        }
+    }
+}
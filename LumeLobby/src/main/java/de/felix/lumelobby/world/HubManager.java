@@ -1,5 +1,7 @@
 package de.felix.lumelobby.world;
 
+import de.felix.lumelobby.api.HubPartyHook;
+import de.felix.lumelobby.api.TeleportResult;
 import de.felix.lumelobby.config.LobbyConfig;
 import de.felix.lumelobby.scheduler.PaperScheduler;
 import lombok.RequiredArgsConstructor;
@@ -15,18 +17,21 @@ import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.StandardCopyOption;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 @RequiredArgsConstructor
 public final class HubManager {
@@ -34,7 +39,14 @@ public final class HubManager {
     private final Plugin plugin;
     private final PaperScheduler scheduler;
     private final LobbyConfig config;
+    private final TeleportAdmissionQueue admission;
     private volatile LobbyConfig.Spawn spawnOverride;
+    private volatile CompletableFuture<Void> ready = CompletableFuture.completedFuture(null);
+    private volatile HubPartyHook partyHook;
+    private volatile boolean scalingUp;
+    private final Map<String, SpawnChunkPinner> spawnChunks = new HashMap<>();
+    // Players routed to an instance whose teleport hasn't finished yet; getPlayerCount() doesn't see them.
+    private final Map<UUID, Integer> inFlight = new ConcurrentHashMap<>();
 
     public boolean enabled() {
         return config.hub().enabled();
@@ -44,12 +56,17 @@ public final class HubManager {
         return enabled() && config.hub().teleportOnJoin();
     }
 
+    /**
+     * Loads or creates the configured number of hub instances. A template import is copied on a background pool
+     * first and the world is only created on the main thread once the copy finished; teleports to the hub wait for that.
+     */
     public void ensureHubWorld() {
         if (!enabled()) return;
-        scheduler.callSync(() -> {
-            ensureHubWorldSync();
-            return null;
-        });
+        List<CompletableFuture<Void>> instances = new ArrayList<>();
+        for (int i = 1; i <= instancesConfig().count(); i++) {
+            instances.add(ensureInstance(config.hub().instanceWorldName(i)));
+        }
+        ready = CompletableFuture.allOf(instances.toArray(CompletableFuture[]::new));
     }
 
     public World hubWorldOrNull() {
@@ -57,39 +74,110 @@ public final class HubManager {
         return Bukkit.getWorld(config.hub().worldName());
     }
 
+    /**
+     * @return the loaded hub instances, instance 1 first
+     */
+    public List<World> hubInstances() {
+        if (!enabled()) return List.of();
+        List<World> out = new ArrayList<>();
+        for (int i = 1; i <= instancesConfig().max(); i++) {
+            World world = Bukkit.getWorld(config.hub().instanceWorldName(i));
+            if (world != null) out.add(world);
+        }
+        return out;
+    }
+
+    public int instanceSoftCap() {
+        return instancesConfig().softCap();
+    }
+
+    public void setPartyHook(HubPartyHook hook) {
+        this.partyHook = hook;
+        admission.setPartyHook(hook);
+    }
+
     public Location hubSpawnOrDefault() {
         World hub = hubWorldOrNull();
-        if (hub != null) {
-            Location configured = configuredSpawnOrNull(hub);
-            if (configured != null) return configured;
-            return hub.getSpawnLocation();
-        }
+        if (hub != null) return hubSpawnIn(hub);
         return Bukkit.getWorlds().isEmpty() ? null : Bukkit.getWorlds().get(0).getSpawnLocation();
     }
 
+    /**
+     * Spawn of a specific hub instance; all instances share the configured spawn coordinates.
+     */
+    public Location hubSpawnIn(World world) {
+        Location configured = configuredSpawnOrNull(world);
+        if (configured != null) return configured;
+        return world.getSpawnLocation();
+    }
+
+    /**
+     * Fire-and-forget variant; failures end up in the log since nobody looks at the result.
+     */
     public void sendToHub(Player player) {
-        if (player == null) return;
-        scheduler.callSync(() -> {
-            if (enabled()) ensureHubWorldSync();
-            Location spawn = hubSpawnOrDefault();
-            if (spawn == null || spawn.getWorld() == null) {
-                plugin.getLogger().warning("[Hub] Teleport failed: no hub spawn available");
-                return null;
+        sendToHubAsync(player).whenComplete((result, ex) -> {
+            if (ex != null) {
+                plugin.getLogger().warning("[Hub] Teleport of " + player.getName() + " failed: " + rootMessage(ex));
+            } else if (result.status() == TeleportResult.Status.FAILED) {
+                // NO_DESTINATION was already logged with its reason where it happened.
+                plugin.getLogger().warning("[Hub] Teleport of " + player.getName() + " failed");
             }
+        });
+    }
 
-            player.teleportAsync(spawn).exceptionally(ex -> {
-                plugin.getLogger().warning("[Hub] Teleport failed: " + ex.getMessage());
-                return null;
-            });
-            return null;
+    /**
+     * Queues the teleport in the {@link TeleportAdmissionQueue}; it runs once the hub is ready and the queue admits it.
+     */
+    public CompletableFuture<TeleportResult> sendToHubAsync(Player player) {
+        if (player == null) return CompletableFuture.completedFuture(new TeleportResult(null, TeleportResult.Status.OFFLINE, null));
+        return ready.thenCompose(ignored -> admission.submit(player, TeleportAdmissionQueue.Destination.HUB, this::teleportToHub));
+    }
+
+    /**
+     * Queues a batch of players as one unit (one readiness hop, one pass over the queue).
+     *
+     * @return results in the order of {@code players}, null entries skipped
+     */
+    public CompletableFuture<List<TeleportResult>> sendToHub(Collection<? extends Player> players) {
+        if (players == null || players.isEmpty()) return CompletableFuture.completedFuture(List.of());
+        List<Player> batch = players.stream().filter(Objects::nonNull).toList();
+        return ready.thenCompose(ignored -> {
+            List<CompletableFuture<TeleportResult>> results = admission.submitAll(batch, TeleportAdmissionQueue.Destination.HUB, this::teleportToHub);
+            return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .thenApply(done -> results.stream().map(CompletableFuture::join).toList());
         });
     }
 
+    private CompletableFuture<TeleportResult> teleportToHub(Player player) {
+        List<World> instances = hubInstances();
+        if (enabled() && instances.isEmpty()) {
+            ensureHubWorldSync(config.hub().worldName(), false);
+            instances = hubInstances();
+        }
+        World target = pickInstance(player, instances);
+        Location spawn = target != null ? hubSpawnIn(target) : hubSpawnOrDefault();
+        if (spawn == null || spawn.getWorld() == null) {
+            plugin.getLogger().warning("[Hub] Teleport failed: no hub spawn available");
+            return CompletableFuture.completedFuture(new TeleportResult(player.getUniqueId(), TeleportResult.Status.NO_DESTINATION, null));
+        }
+
+        UUID counted = target != null && !target.equals(player.getWorld()) ? target.getUID() : null;
+        if (counted != null) inFlight.merge(counted, 1, Integer::sum);
+        CompletableFuture<TeleportResult> result = player.teleportAsync(spawn).handle((ok, ex) -> {
+            if (counted != null) inFlight.computeIfPresent(counted, (id, n) -> n > 1 ? n - 1 : null);
+            if (ex != null) plugin.getLogger().warning("[Hub] Teleport failed: " + ex.getMessage());
+            boolean success = ex == null && Boolean.TRUE.equals(ok);
+            return new TeleportResult(player.getUniqueId(), success ? TeleportResult.Status.SUCCESS : TeleportResult.Status.FAILED, spawn);
+        });
+        if (target != null) scaleUpIfFull(instances);
+        return result;
+    }
+
     public void setHubSpawnFrom(Player player) {
         if (player == null) return;
         Location loc = player.getLocation();
         String hubName = config.hub().worldName();
-        if (loc.getWorld() == null || hubName == null || hubName.isBlank() || !hubName.equals(loc.getWorld().getName())) {
+        if (loc.getWorld() == null || hubName == null || hubName.isBlank() || !isInstanceName(loc.getWorld().getName())) {
             player.sendMessage("§cDu musst in der Hub-Welt stehen (" + hubName + "), um den Hub-Spawn zu setzen.");
             return;
         }
@@ -103,7 +191,10 @@ public final class HubManager {
             jp.saveConfig();
         }
 
-        applyConfiguredSpawn(loc.getWorld());
+        for (World world : hubInstances()) {
+            applyConfiguredSpawn(world);
+            prewarmSpawn(world);
+        }
         player.sendMessage("§aHub-Spawn gesetzt und in config.yml gespeichert.");
     }
 
@@ -120,26 +211,156 @@ public final class HubManager {
             cfg.set("hub.spawn.pitch", null);
             jp.saveConfig();
         }
+        for (World world : hubInstances()) {
+            prewarmSpawn(world);
+        }
         if (player != null) player.sendMessage("§aHub-Spawn aus config.yml entfernt (fallback: World-Spawn).");
     }
 
-    private void ensureHubWorldSync() {
-        String name = config.hub().worldName();
-        if (name == null || name.isBlank()) return;
+    private LobbyConfig.HubInstancesConfig instancesConfig() {
+        LobbyConfig.HubInstancesConfig instances = config.hub().instances();
+        return instances != null ? instances : new LobbyConfig.HubInstancesConfig(1, 1, 100, 0.9);
+    }
+
+    private boolean isInstanceName(String name) {
+        for (int i = 1; i <= instancesConfig().max(); i++) {
+            if (config.hub().instanceWorldName(i).equals(name)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Players already in a hub instance stay there; party members follow the instance most of their party is in;
+     * everyone else goes to the instance with the fewest players, counting those still on their way.
+     */
+    private World pickInstance(Player player, List<World> instances) {
+        if (instances.isEmpty()) return null;
+        if (instances.contains(player.getWorld())) return player.getWorld();
+
+        World party = partyInstance(player, instances);
+        if (party != null) return party;
+
+        World best = null;
+        for (World world : instances) {
+            if (best == null || load(world) < load(best)) best = world;
+        }
+        return best;
+    }
+
+    /**
+     * Players in the instance plus those already routed there whose teleport is still running.
+     */
+    private int load(World world) {
+        return world.getPlayerCount() + inFlight.getOrDefault(world.getUID(), 0);
+    }
+
+    private World partyInstance(Player player, List<World> instances) {
+        HubPartyHook hook = partyHook;
+        if (hook == null || instances.size() < 2) return null;
+        Collection<UUID> members;
+        try {
+            members = hook.partyMembers(player);
+        } catch (Exception e) {
+            plugin.getLogger().warning("[Hub] party hook error: " + e.getMessage());
+            return null;
+        }
+        if (members == null || members.isEmpty()) return null;
+
+        Map<World, Integer> counts = new HashMap<>();
+        for (UUID id : members) {
+            if (id == null || id.equals(player.getUniqueId())) continue;
+            Player member = Bukkit.getPlayer(id);
+            if (member == null) continue;
+            World world = member.getWorld();
+            if (instances.contains(world)) counts.merge(world, 1, Integer::sum);
+        }
+        World best = null;
+        int bestCount = 0;
+        for (Map.Entry<World, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > bestCount) {
+                best = entry.getKey();
+                bestCount = entry.getValue();
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Starts the next instance once every loaded one has reached {@code scaleUpAt * softCap} players.
+     */
+    private void scaleUpIfFull(List<World> instances) {
+        if (scalingUp) return;
+        LobbyConfig.HubInstancesConfig cfg = instancesConfig();
+        if (instances.size() >= cfg.max()) return;
+        int threshold = Math.max(1, (int) Math.ceil(cfg.softCap() * cfg.scaleUpAt()));
+        for (World world : instances) {
+            if (load(world) < threshold) return;
+        }
+
+        for (int i = 1; i <= cfg.max(); i++) {
+            String name = config.hub().instanceWorldName(i);
+            if (Bukkit.getWorld(name) != null) continue;
+            scalingUp = true;
+            plugin.getLogger().info("[Hub] All hub instances have " + threshold + "+ players, starting " + name);
+            ensureInstance(name).whenComplete((ignored, ex) -> scalingUp = false);
+            return;
+        }
+    }
+
+    private CompletableFuture<Void> ensureInstance(String name) {
+        LobbyConfig.TemplateConfig templateCfg = config.hub().template();
+        boolean sync = templateCfg != null && templateCfg.sync();
+        Path template = name == null || name.isBlank() || Bukkit.getWorld(name) != null || !config.hub().createHubWorld()
+            ? null
+            : templateToImport(name, sync);
+        CompletableFuture<Void> setup;
+        if (template == null) {
+            setup = scheduler.callSync(() -> ensureHubWorldSync(name, false)).thenCompose(prewarm -> prewarm);
+        } else {
+            setup = importAndCreate(name, template, sync, templateCfg);
+        }
+        // Never leave ready failed: teleports then fall back to NO_DESTINATION instead of dying with the setup error.
+        return setup.exceptionally(ex -> {
+            plugin.getLogger().warning("[Hub] Hub world setup failed: " + rootMessage(ex));
+            return null;
+        });
+    }
+
+    private CompletableFuture<Void> importAndCreate(String name, Path template, boolean sync, LobbyConfig.TemplateConfig templateCfg) {
+        Path target = Bukkit.getWorldContainer().toPath().resolve(name);
+        TemplateImporter importer = new TemplateImporter(plugin, "Hub");
+        return (sync ? importer.syncAsync(template, target, templateCfg.hardLinks()) : importer.copyAsync(template, target))
+            .handle((ignored, ex) -> {
+                if (ex != null) {
+                    plugin.getLogger().warning("[Hub] Failed to import hub template: " + rootMessage(ex));
+                    // A failed sync still leaves the previous template world in place.
+                    return sync && Files.exists(target.resolve("level.dat"));
+                }
+                if (!sync) plugin.getLogger().info("[Hub] Imported hub template '" + template.getFileName() + "' → " + name);
+                return true;
+            })
+            .thenCompose(imported -> scheduler.callSync(() -> ensureHubWorldSync(name, imported)))
+            .thenCompose(prewarm -> prewarm);
+    }
+
+    /**
+     * @return completes once the spawn chunks are loaded (see {@link SpawnChunkPinner})
+     */
+    private CompletableFuture<Void> ensureHubWorldSync(String name, boolean imported) {
+        if (name == null || name.isBlank()) return CompletableFuture.completedFuture(null);
 
         World existing = Bukkit.getWorld(name);
         if (existing != null) {
             applyHubRules(existing);
-            return;
+            return prewarmSpawn(existing);
         }
 
         if (!config.hub().createHubWorld()) {
             plugin.getLogger().warning("[Hub] Hub world '" + name + "' missing and createHubWorld=false");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        boolean imported = tryImportHubTemplateWorld(name);
-
+        dropDuplicateUid(name);
         var creator = new WorldCreator(name);
         creator.generateStructures(false);
         if (!imported) creator.generator(new VoidChunkGenerator());
@@ -155,6 +376,33 @@ public final class HubManager {
         applyHubRules(world);
         applyConfiguredSpawn(world);
         plugin.getLogger().info("[Hub] Created hub world: " + name + (imported ? " (template)" : ""));
+        return prewarmSpawn(world);
+    }
+
+    /**
+     * Instance folders imported before uid.dat was skipped carry the template's UID; the server would refuse to load
+     * a second world with the same UID, so let it generate a fresh one.
+     */
+    private void dropDuplicateUid(String name) {
+        Path uidFile = Bukkit.getWorldContainer().toPath().resolve(name).resolve("uid.dat");
+        if (!Files.isRegularFile(uidFile)) return;
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(uidFile))) {
+            UUID uid = new UUID(in.readLong(), in.readLong());
+            if (Bukkit.getWorld(uid) == null) return;
+        } catch (IOException e) {
+            return;
+        }
+        try {
+            Files.delete(uidFile);
+            plugin.getLogger().info("[Hub] Removed duplicate uid.dat from " + name);
+        } catch (IOException e) {
+            plugin.getLogger().warning("[Hub] Could not remove duplicate uid.dat from " + name + ": " + e.getMessage());
+        }
+    }
+
+    private CompletableFuture<Void> prewarmSpawn(World world) {
+        SpawnChunkPinner pinner = spawnChunks.computeIfAbsent(world.getName(), ignored -> new SpawnChunkPinner(plugin, "Hub"));
+        return pinner.pin(hubSpawnIn(world), config.hub().prewarmRadius());
     }
 
     private void applyHubRules(World world) {
@@ -203,28 +451,28 @@ public final class HubManager {
         world.getBlockAt(0, y, 0).setType(Material.IRON_BLOCK, false);
     }
 
-    private boolean tryImportHubTemplateWorld(String hubWorldName) {
+    private Path templateToImport(String worldName, boolean sync) {
         try {
-            Path templateRoot = ensureTemplateFolder();
-            Path templateWorld = detectTemplateWorldFolder(templateRoot);
-            if (templateWorld == null) return false;
+            Path templateWorld = detectTemplateWorldFolder(ensureTemplateFolder());
+            if (templateWorld == null) return null;
 
-            Path worldContainer = Bukkit.getWorldContainer().toPath();
-            Path target = worldContainer.resolve(hubWorldName);
-            if (Files.exists(target)) {
+            Path target = Bukkit.getWorldContainer().toPath().resolve(worldName);
+            if (!sync && Files.exists(target)) {
                 plugin.getLogger().info("[Hub] Template found but hub world folder already exists: " + target);
-                return false;
+                return null;
             }
-
-            copyDirectory(templateWorld, target);
-            plugin.getLogger().info("[Hub] Imported hub template '" + templateWorld.getFileName() + "' → " + hubWorldName);
-            return true;
+            return templateWorld;
         } catch (Exception e) {
             plugin.getLogger().warning("[Hub] Failed to import hub template: " + e.getMessage());
-            return false;
+            return null;
         }
     }
 
+    private static String rootMessage(Throwable t) {
+        while (t.getCause() != null) t = t.getCause();
+        return t.getMessage();
+    }
+
     private Path ensureTemplateFolder() throws IOException {
         Path root = plugin.getDataFolder().toPath().resolve("templates").resolve("hub");
         Files.createDirectories(root);
@@ -244,7 +492,8 @@ public final class HubManager {
                 3) Restart the server.
 
                 Notes:
-                - The template is only imported if the hub world folder does NOT exist yet.
+                - The template is only imported if the hub world folder does NOT exist yet,
+                  unless hub.template.mode is "sync" (then changed files are updated on every start).
                 - If you already have a hub world and want to re-import, stop the server and delete the world folder first.
                 - Keep exactly ONE world folder in here (otherwise the first one is used).
                 """;
@@ -272,27 +521,6 @@ public final class HubManager {
         return candidates.get(0);
     }
 
-    private static void copyDirectory(Path sourceDir, Path targetDir) throws IOException {
-        Files.createDirectories(targetDir);
-        Files.walkFileTree(sourceDir, new SimpleFileVisitor<>() {
-            @Override
-            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
-                Path rel = sourceDir.relativize(dir);
-                Path target = targetDir.resolve(rel);
-                Files.createDirectories(target);
-                return FileVisitResult.CONTINUE;
-            }
-
-            @Override
-            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-                Path rel = sourceDir.relativize(file);
-                Path target = targetDir.resolve(rel);
-                Files.copy(file, target, StandardCopyOption.COPY_ATTRIBUTES);
-                return FileVisitResult.CONTINUE;
-            }
-        });
-    }
-
     private Location configuredSpawnOrNull(World world) {
         if (world == null) return null;
         LobbyConfig.Spawn spawn = spawnOverride != null ? spawnOverride : config.hub().spawn();
@@ -0,0 +1,234 @@
+package de.felix.lumelobby.world;
+
+import de.felix.lumelobby.api.HubEnterEvent;
+import de.felix.lumelobby.api.HubLeaveEvent;
+import de.felix.lumelobby.api.HubTransitionCause;
+import de.felix.lumelobby.config.LobbyConfig;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps "which hub/lobby world is this player in" per player, updated from join/quit/world-change events
+ * (only once the player actually is in the new world, not when a teleport is merely requested).
+ * Hub worlds are resolved to world UIDs once (and again when worlds load/unload or the config reloads),
+ * so hot paths only do a map lookup instead of comparing world names.
+ * <p>
+ * It is also the single place that notices hub area transitions and fires {@link HubEnterEvent} / {@link HubLeaveEvent}.
+ * The index itself is updated at LOWEST so other listeners already see the new state. On a world change,
+ * {@link HubLeaveEvent} is fired at LOWEST as well (hub state is cleaned up before other plugins set up the new
+ * world) and {@link HubEnterEvent} at MONITOR (hub state is applied after them).
+ */
+public final class HubMembershipIndex implements Listener {
+
+    private static final byte HUB = 1;
+    private static final byte LOBBY = 1 << 1;
+    private static final byte HUB_UX = 1 << 2;
+
+    private final Map<UUID, Byte> membership = new ConcurrentHashMap<>();
+    // Hub world each player was last announced in via HubEnterEvent; main thread only.
+    private final Map<UUID, UUID> announced = new ConcurrentHashMap<>();
+    private volatile LobbyConfig config;
+    private volatile Set<UUID> hubWorldIds = Set.of();
+    private volatile UUID lobbyWorldId;
+    private volatile Set<UUID> hubUxWorldIds = Set.of();
+
+    public HubMembershipIndex(LobbyConfig config) {
+        this.config = config;
+    }
+
+    public void reload(LobbyConfig config) {
+        this.config = config;
+        rebuild();
+    }
+
+    public void rebuild() {
+        resolveWorlds();
+        membership.clear();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (player == null) continue;
+            membership.put(player.getUniqueId(), maskOf(player.getWorld()));
+        }
+        announced.keySet().removeIf(id -> Bukkit.getPlayer(id) == null);
+        for (Player player : new ArrayList<>(Bukkit.getOnlinePlayers())) {
+            if (player != null) announce(player, null, HubTransitionCause.RELOAD, true);
+        }
+    }
+
+    public boolean isInHub(Player player) {
+        return (mask(player) & HUB) != 0;
+    }
+
+    public boolean isInLobby(Player player) {
+        return (mask(player) & LOBBY) != 0;
+    }
+
+    /**
+     * @return true if the player is in one of the worlds where hub UX (scoreboard, items, cosmetics, ...) applies.
+     */
+    public boolean isInHubUx(Player player) {
+        return (mask(player) & HUB_UX) != 0;
+    }
+
+    public boolean isHubWorld(World world) {
+        return world != null && hubWorldIds.contains(world.getUID());
+    }
+
+    public boolean isLobbyWorld(World world) {
+        return world != null && world.getUID().equals(lobbyWorldId);
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        update(event.getPlayer(), event.getPlayer().getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoinAnnounce(PlayerJoinEvent event) {
+        announce(event.getPlayer(), null, HubTransitionCause.JOIN, true);
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onChangedWorld(PlayerChangedWorldEvent event) {
+        update(event.getPlayer(), event.getPlayer().getWorld());
+        announce(event.getPlayer(), event.getFrom(), HubTransitionCause.WORLD_CHANGE, false);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChangedWorldAnnounce(PlayerChangedWorldEvent event) {
+        announce(event.getPlayer(), event.getFrom(), HubTransitionCause.WORLD_CHANGE, true);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        membership.remove(player.getUniqueId());
+        UUID left = announced.remove(player.getUniqueId());
+        if (left != null) {
+            Bukkit.getPluginManager().callEvent(new HubLeaveEvent(player, Bukkit.getWorld(left), HubTransitionCause.QUIT));
+        }
+    }
+
+    @EventHandler
+    public void onWorldLoad(WorldLoadEvent event) {
+        rebuild();
+    }
+
+    @EventHandler
+    public void onWorldUnload(WorldUnloadEvent event) {
+        rebuild();
+    }
+
+    private void update(Player player, World world) {
+        if (player == null) return;
+        membership.put(player.getUniqueId(), maskOf(world));
+    }
+
+    /**
+     * Fires enter/leave if the player's hub area state differs from the last announced one.
+     *
+     * @param from the world the player came from, if known
+     * @param enter false to only announce a leave
+     */
+    private void announce(Player player, World from, HubTransitionCause cause, boolean enter) {
+        if (player == null || !player.isOnline()) return;
+        UUID id = player.getUniqueId();
+        World world = player.getWorld();
+        boolean inHub = (mask(player) & HUB_UX) != 0;
+        UUID previous = announced.get(id);
+        if (inHub == (previous != null)) {
+            // Switching between hub worlds (e.g. instances) only moves the bookmark.
+            if (inHub) announced.put(id, world.getUID());
+            return;
+        }
+
+        if (inHub) {
+            if (!enter) return;
+            announced.put(id, world.getUID());
+            Bukkit.getPluginManager().callEvent(new HubEnterEvent(player, world, cause));
+        } else {
+            announced.remove(id);
+            World left = from != null && from.getUID().equals(previous) ? from : Bukkit.getWorld(previous);
+            Bukkit.getPluginManager().callEvent(new HubLeaveEvent(player, left, cause));
+        }
+    }
+
+    private byte mask(Player player) {
+        if (player == null) return 0;
+        Byte cached = membership.get(player.getUniqueId());
+        if (cached != null) return cached;
+
+        byte computed = maskOf(player.getWorld());
+        if (player.isOnline()) membership.put(player.getUniqueId(), computed);
+        return computed;
+    }
+
+    private byte maskOf(World world) {
+        if (world == null) return 0;
+        UUID id = world.getUID();
+        byte mask = 0;
+        if (hubWorldIds.contains(id)) mask |= HUB;
+        if (id.equals(lobbyWorldId)) mask |= LOBBY;
+        if (hubUxWorldIds.contains(id)) mask |= HUB_UX;
+        return mask;
+    }
+
+    private void resolveWorlds() {
+        LobbyConfig cfg = config;
+        String lobbyName = cfg.lobby() == null ? null : cfg.lobby().worldName();
+
+        // Every hub instance counts as the hub (instance 1 is hub.worldName itself).
+        Set<UUID> hubs = new HashSet<>();
+        if (cfg.hub() != null) {
+            int max = cfg.hub().instances() == null ? 1 : cfg.hub().instances().max();
+            for (int i = 1; i <= max; i++) {
+                UUID id = worldIdOrNull(cfg.hub().instanceWorldName(i));
+                if (id != null) hubs.add(id);
+            }
+        }
+        UUID lobby = worldIdOrNull(lobbyName);
+
+        Set<UUID> ux = new HashSet<>();
+        var worlds = cfg.hubUx() == null ? null : cfg.hubUx().worlds();
+        if (worlds != null && !worlds.isEmpty()) {
+            for (String w : worlds) {
+                UUID id = worldIdOrNull(w);
+                if (id != null) ux.add(id);
+            }
+        } else {
+            ux.addAll(hubs);
+            if (lobby != null && cfg.lobby().sameAsHub()) ux.add(lobby);
+        }
+
+        hubWorldIds = Set.copyOf(hubs);
+        lobbyWorldId = lobby;
+        hubUxWorldIds = Set.copyOf(ux);
+    }
+
+    /**
+     * World names are matched ignoring case for every lookup, including the protection listeners (which compared
+     * the hub/lobby name case-sensitively before this index existed).
+     */
+    private static UUID worldIdOrNull(String name) {
+        if (name == null || name.isBlank()) return null;
+        for (World world : Bukkit.getWorlds()) {
+            if (name.equalsIgnoreCase(world.getName())) return world.getUID();
+        }
+        return null;
+    }
+}
@@ -30,6 +30,7 @@ public final class HubProtectionListener implements Listener {
     private final Plugin plugin;
     private final LobbyConfig config;
     private final HubManager hubManager;
+    private final HubMembershipIndex membership;
     private final Set<String> recentlyRevoked = ConcurrentHashMap.newKeySet();
     private static final String PERM_ADMIN = "lumelobby.admin";
 
@@ -38,13 +39,11 @@ public final class HubProtectionListener implements Listener {
     }
 
     private boolean isHubWorld(World world) {
-        if (world == null) return false;
-        String name = config.hub().worldName();
-        return name != null && !name.isBlank() && name.equals(world.getName());
+        return membership.isHubWorld(world);
     }
 
     private boolean isInHub(Player player) {
-        return player != null && isHubWorld(player.getWorld());
+        return membership.isInHub(player);
     }
 
     @EventHandler(ignoreCancelled = true)
@@ -118,7 +117,7 @@ public final class HubProtectionListener implements Listener {
         if (event.getTo() == null) return;
         if (event.getTo().getY() > 5) return;
 
-        Location spawn = hubManager.hubSpawnOrDefault();
+        Location spawn = hubManager.hubSpawnIn(event.getTo().getWorld());
         if (spawn == null || spawn.getWorld() == null) return;
 
         player.setFallDistance(0);
@@ -1,5 +1,6 @@
 package de.felix.lumelobby.world;
 
+import de.felix.lumelobby.api.TeleportResult;
 import de.felix.lumelobby.config.LobbyConfig;
 import de.felix.lumelobby.scheduler.PaperScheduler;
 import lombok.RequiredArgsConstructor;
@@ -17,15 +18,14 @@ import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.StandardCopyOption;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 @RequiredArgsConstructor
 public final class LobbyManager {
@@ -33,7 +33,10 @@ public final class LobbyManager {
     private final Plugin plugin;
     private final PaperScheduler scheduler;
     private final LobbyConfig config;
+    private final TeleportAdmissionQueue admission;
     private volatile LobbyConfig.Spawn spawnOverride;
+    private volatile CompletableFuture<Void> ready = CompletableFuture.completedFuture(null);
+    private SpawnChunkPinner spawnChunks;
 
     public boolean enabled() {
         return config.lobby().enabled();
@@ -47,14 +50,48 @@ public final class LobbyManager {
         return config.lobby().teleportOnJoinMode();
     }
 
+    /**
+     * Loads or creates the lobby world. A template import is copied on a background pool first and the world
+     * is only created on the main thread once the copy finished; teleports to the lobby wait for that.
+     */
     public void ensureLobbyWorld() {
         if (!enabled()) return;
-        scheduler.callSync(() -> {
-            ensureLobbyWorldSync();
+        String name = config.lobby().worldName();
+        LobbyConfig.TemplateConfig templateCfg = config.lobby().template();
+        boolean sync = templateCfg != null && templateCfg.sync();
+        Path template = name == null || name.isBlank() || Bukkit.getWorld(name) != null || !config.lobby().createLobbyWorld()
+            ? null
+            : templateToImport(name, sync);
+        CompletableFuture<Void> setup;
+        if (template == null) {
+            setup = scheduler.callSync(() -> ensureLobbyWorldSync(false)).thenCompose(prewarm -> prewarm);
+        } else {
+            setup = importAndCreate(name, template, sync, templateCfg);
+        }
+        // Never leave ready failed: teleports then fall back to NO_DESTINATION instead of dying with the setup error.
+        ready = setup.exceptionally(ex -> {
+            plugin.getLogger().warning("[Lobby] Lobby world setup failed: " + rootMessage(ex));
             return null;
         });
     }
 
+    private CompletableFuture<Void> importAndCreate(String name, Path template, boolean sync, LobbyConfig.TemplateConfig templateCfg) {
+        Path target = Bukkit.getWorldContainer().toPath().resolve(name);
+        TemplateImporter importer = new TemplateImporter(plugin, "Lobby");
+        return (sync ? importer.syncAsync(template, target, templateCfg.hardLinks()) : importer.copyAsync(template, target))
+            .handle((ignored, ex) -> {
+                if (ex != null) {
+                    plugin.getLogger().warning("[Lobby] Failed to import lobby template: " + rootMessage(ex));
+                    // A failed sync still leaves the previous template world in place.
+                    return sync && Files.exists(target.resolve("level.dat"));
+                }
+                if (!sync) plugin.getLogger().info("[Lobby] Imported lobby template '" + template.getFileName() + "' → " + name);
+                return true;
+            })
+            .thenCompose(imported -> scheduler.callSync(() -> ensureLobbyWorldSync(imported)))
+            .thenCompose(prewarm -> prewarm);
+    }
+
     public World lobbyWorldOrNull() {
         if (!enabled()) return null;
         return Bukkit.getWorld(config.lobby().worldName());
@@ -70,22 +107,57 @@ public final class LobbyManager {
         return Bukkit.getWorlds().isEmpty() ? null : Bukkit.getWorlds().get(0).getSpawnLocation();
     }
 
+    /**
+     * Fire-and-forget variant; failures end up in the log since nobody looks at the result.
+     */
     public void sendToLobby(Player player) {
-        if (player == null) return;
-        scheduler.callSync(() -> {
-            if (enabled()) ensureLobbyWorldSync();
-            Location spawn = lobbySpawnOrDefault();
-            if (spawn == null || spawn.getWorld() == null) {
-                plugin.getLogger().warning("[Lobby] Teleport failed: no lobby spawn available");
-                return null;
+        sendToLobbyAsync(player).whenComplete((result, ex) -> {
+            if (ex != null) {
+                plugin.getLogger().warning("[Lobby] Teleport of " + player.getName() + " failed: " + rootMessage(ex));
+            } else if (result.status() == TeleportResult.Status.FAILED) {
+                // NO_DESTINATION was already logged with its reason where it happened.
+                plugin.getLogger().warning("[Lobby] Teleport of " + player.getName() + " failed");
             }
+        });
+    }
 
-            player.teleportAsync(spawn).exceptionally(ex -> {
-                plugin.getLogger().warning("[Lobby] Teleport failed: " + ex.getMessage());
-                return null;
-            });
-            return null;
+    /**
+     * Queues the teleport in the {@link TeleportAdmissionQueue}; it runs once the lobby is ready and the queue admits it.
+     */
+    public CompletableFuture<TeleportResult> sendToLobbyAsync(Player player) {
+        if (player == null) return CompletableFuture.completedFuture(new TeleportResult(null, TeleportResult.Status.OFFLINE, null));
+        return ready.thenCompose(ignored -> admission.submit(player, TeleportAdmissionQueue.Destination.LOBBY, this::teleportToLobby));
+    }
+
+    /**
+     * Queues a batch of players as one unit (one readiness hop, one pass over the queue).
+     *
+     * @return results in the order of {@code players}, null entries skipped
+     */
+    public CompletableFuture<List<TeleportResult>> sendToLobby(Collection<? extends Player> players) {
+        if (players == null || players.isEmpty()) return CompletableFuture.completedFuture(List.of());
+        List<Player> batch = players.stream().filter(Objects::nonNull).toList();
+        return ready.thenCompose(ignored -> {
+            List<CompletableFuture<TeleportResult>> results = admission.submitAll(batch, TeleportAdmissionQueue.Destination.LOBBY, this::teleportToLobby);
+            return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .thenApply(done -> results.stream().map(CompletableFuture::join).toList());
+        });
+    }
+
+    private CompletableFuture<TeleportResult> teleportToLobby(Player player) {
+        if (enabled()) ensureLobbyWorldSync(false);
+        Location spawn = lobbySpawnOrDefault();
+        if (spawn == null || spawn.getWorld() == null) {
+            plugin.getLogger().warning("[Lobby] Teleport failed: no lobby spawn available");
+            return CompletableFuture.completedFuture(new TeleportResult(player.getUniqueId(), TeleportResult.Status.NO_DESTINATION, null));
+        }
+
+        CompletableFuture<TeleportResult> result = player.teleportAsync(spawn).handle((ok, ex) -> {
+            if (ex != null) plugin.getLogger().warning("[Lobby] Teleport failed: " + ex.getMessage());
+            boolean success = ex == null && Boolean.TRUE.equals(ok);
+            return new TeleportResult(player.getUniqueId(), success ? TeleportResult.Status.SUCCESS : TeleportResult.Status.FAILED, spawn);
         });
+        return result;
     }
 
     public void setLobbySpawnFrom(Player player) {
@@ -107,6 +179,7 @@ public final class LobbyManager {
         }
 
         applyConfiguredSpawn(loc.getWorld());
+        prewarmSpawn(loc.getWorld());
         player.sendMessage("§aLobby-Spawn gesetzt und in config.yml gespeichert.");
     }
 
@@ -123,26 +196,29 @@ public final class LobbyManager {
             cfg.set("lobby.spawn.pitch", null);
             jp.saveConfig();
         }
+        World world = lobbyWorldOrNull();
+        if (world != null) prewarmSpawn(world);
         if (player != null) player.sendMessage("§aLobby-Spawn aus config.yml entfernt (fallback: World-Spawn).");
     }
 
-    private void ensureLobbyWorldSync() {
+    /**
+     * @return completes once the spawn chunks are loaded (see {@link SpawnChunkPinner})
+     */
+    private CompletableFuture<Void> ensureLobbyWorldSync(boolean imported) {
         String name = config.lobby().worldName();
-        if (name == null || name.isBlank()) return;
+        if (name == null || name.isBlank()) return CompletableFuture.completedFuture(null);
 
         World existing = Bukkit.getWorld(name);
         if (existing != null) {
             applyLobbyRules(existing);
-            return;
+            return prewarmSpawn(existing);
         }
 
         if (!config.lobby().createLobbyWorld()) {
             plugin.getLogger().warning("[Lobby] Lobby world '" + name + "' missing and createLobbyWorld=false");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        boolean imported = tryImportLobbyTemplateWorld(name);
-
         var creator = new WorldCreator(name);
         creator.generateStructures(false);
         if (!imported) creator.generator(new VoidChunkGenerator());
@@ -158,6 +234,13 @@ public final class LobbyManager {
         applyLobbyRules(world);
         applyConfiguredSpawn(world);
         plugin.getLogger().info("[Lobby] Created lobby world: " + name + (imported ? " (template)" : ""));
+        return prewarmSpawn(world);
+    }
+
+    private CompletableFuture<Void> prewarmSpawn(World world) {
+        if (spawnChunks == null) spawnChunks = new SpawnChunkPinner(plugin, "Lobby");
+        Location spawn = configuredSpawnOrNull(world);
+        return spawnChunks.pin(spawn != null ? spawn : world.getSpawnLocation(), config.lobby().prewarmRadius());
     }
 
     private void applyLobbyRules(World world) {
@@ -206,28 +289,28 @@ public final class LobbyManager {
         world.getBlockAt(0, y, 0).setType(Material.IRON_BLOCK, false);
     }
 
-    private boolean tryImportLobbyTemplateWorld(String lobbyWorldName) {
+    private Path templateToImport(String worldName, boolean sync) {
         try {
-            Path templateRoot = ensureTemplateFolder();
-            Path templateWorld = detectTemplateWorldFolder(templateRoot);
-            if (templateWorld == null) return false;
+            Path templateWorld = detectTemplateWorldFolder(ensureTemplateFolder());
+            if (templateWorld == null) return null;
 
-            Path worldContainer = Bukkit.getWorldContainer().toPath();
-            Path target = worldContainer.resolve(lobbyWorldName);
-            if (Files.exists(target)) {
+            Path target = Bukkit.getWorldContainer().toPath().resolve(worldName);
+            if (!sync && Files.exists(target)) {
                 plugin.getLogger().info("[Lobby] Template found but lobby world folder already exists: " + target);
-                return false;
+                return null;
             }
-
-            copyDirectory(templateWorld, target);
-            plugin.getLogger().info("[Lobby] Imported lobby template '" + templateWorld.getFileName() + "' → " + lobbyWorldName);
-            return true;
+            return templateWorld;
         } catch (Exception e) {
             plugin.getLogger().warning("[Lobby] Failed to import lobby template: " + e.getMessage());
-            return false;
+            return null;
         }
     }
 
+    private static String rootMessage(Throwable t) {
+        while (t.getCause() != null) t = t.getCause();
+        return t.getMessage();
+    }
+
     private Path ensureTemplateFolder() throws IOException {
         Path root = plugin.getDataFolder().toPath().resolve("templates").resolve("lobby");
         Files.createDirectories(root);
@@ -247,7 +330,8 @@ public final class LobbyManager {
                 3) Restart the server.
 
                 Notes:
-                - The template is only imported if the lobby world folder does NOT exist yet.
+                - The template is only imported if the lobby world folder does NOT exist yet,
+                  unless lobby.template.mode is "sync" (then changed files are updated on every start).
                 - If you already have a lobby world and want to re-import, stop the server and delete the world folder first.
                 - Keep exactly ONE world folder in here (otherwise the first one is used).
                 """;
@@ -275,27 +359,6 @@ public final class LobbyManager {
         return candidates.get(0);
     }
 
-    private static void copyDirectory(Path sourceDir, Path targetDir) throws IOException {
-        Files.createDirectories(targetDir);
-        Files.walkFileTree(sourceDir, new SimpleFileVisitor<>() {
-            @Override
-            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
-                Path rel = sourceDir.relativize(dir);
-                Path target = targetDir.resolve(rel);
-                Files.createDirectories(target);
-                return FileVisitResult.CONTINUE;
-            }
-
-            @Override
-            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-                Path rel = sourceDir.relativize(file);
-                Path target = targetDir.resolve(rel);
-                Files.copy(file, target, StandardCopyOption.COPY_ATTRIBUTES);
-                return FileVisitResult.CONTINUE;
-            }
-        });
-    }
-
     private Location configuredSpawnOrNull(World world) {
         if (world == null) return null;
         LobbyConfig.Spawn spawn = spawnOverride != null ? spawnOverride : config.lobby().spawn();
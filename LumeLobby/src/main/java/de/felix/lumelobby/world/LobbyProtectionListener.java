@@ -30,6 +30,7 @@ public final class LobbyProtectionListener implements Listener {
     private final Plugin plugin;
     private final LobbyConfig config;
     private final LobbyManager lobbyManager;
+    private final HubMembershipIndex membership;
     private final Set<String> recentlyRevoked = ConcurrentHashMap.newKeySet();
     private static final String PERM_ADMIN = "lumelobby.admin";
 
@@ -38,13 +39,11 @@ public final class LobbyProtectionListener implements Listener {
     }
 
     private boolean isLobbyWorld(World world) {
-        if (world == null) return false;
-        String name = config.lobby().worldName();
-        return name != null && !name.isBlank() && name.equals(world.getName());
+        return membership.isLobbyWorld(world);
     }
 
     private boolean isInLobby(Player player) {
-        return player != null && isLobbyWorld(player.getWorld());
+        return membership.isInLobby(player);
     }
 
     @EventHandler(ignoreCancelled = true)
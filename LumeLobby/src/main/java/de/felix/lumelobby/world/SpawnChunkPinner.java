@@ -0,0 +1,90 @@
+package de.felix.lumelobby.world;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Loads the chunks around a spawn asynchronously and keeps them loaded with plugin chunk tickets, so the first
+ * teleports after a restart (or after the world emptied) don't wait on chunk loads. Main thread only.
+ */
+final class SpawnChunkPinner {
+
+    private final Plugin plugin;
+    private final String tag;
+    private final List<int[]> pinned = new ArrayList<>();
+    private World world;
+    private long center = Long.MIN_VALUE;
+    private CompletableFuture<Void> loading = CompletableFuture.completedFuture(null);
+
+    SpawnChunkPinner(Plugin plugin, String tag) {
+        this.plugin = plugin;
+        this.tag = tag;
+    }
+
+    /**
+     * Pins the square of chunks with the given radius around {@code spawn}. Calling it again for the same spawn chunk
+     * is a no-op; a different spawn releases the old tickets first. A radius of 0 disables pinning.
+     *
+     * @return completes once every chunk is loaded
+     */
+    CompletableFuture<Void> pin(Location spawn, int radius) {
+        if (spawn == null || spawn.getWorld() == null || radius <= 0) {
+            release();
+            return CompletableFuture.completedFuture(null);
+        }
+        World target = spawn.getWorld();
+        int cx = spawn.getBlockX() >> 4;
+        int cz = spawn.getBlockZ() >> 4;
+        long key = Chunk.getChunkKey(cx, cz);
+        if (target.equals(world) && key == center) return loading;
+
+        release();
+        world = target;
+        center = key;
+
+        long started = System.nanoTime();
+        List<CompletableFuture<Chunk>> loads = new ArrayList<>();
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                int x = cx + dx;
+                int z = cz + dz;
+                loads.add(target.getChunkAtAsync(x, z).thenApply(chunk -> {
+                    // Completes on the main thread; a newer pin() may already have moved on.
+                    if (target.equals(world) && key == center && target.addPluginChunkTicket(x, z, plugin)) {
+                        pinned.add(new int[]{x, z});
+                    }
+                    return chunk;
+                }));
+            }
+        }
+
+        int count = loads.size();
+        loading = CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new))
+            .thenRun(() -> plugin.getLogger().info("[" + tag + "] Pre-warmed " + count + " spawn chunks in " + target.getName()
+                + " in " + (System.nanoTime() - started) / 1_000_000L + " ms"))
+            .exceptionally(ex -> {
+                plugin.getLogger().warning("[" + tag + "] Spawn chunk pre-warm failed: " + ex.getMessage());
+                return null;
+            });
+        return loading;
+    }
+
+    void release() {
+        World current = world;
+        if (current != null) {
+            for (int[] chunk : pinned) {
+                current.removePluginChunkTicket(chunk[0], chunk[1], plugin);
+            }
+        }
+        pinned.clear();
+        world = null;
+        center = Long.MIN_VALUE;
+        loading = CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,225 @@
+package de.felix.lumelobby.world;
+
+import de.felix.lumelobby.api.HubPartyHook;
+import de.felix.lumelobby.api.TeleportResult;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Admission queue in front of hub/lobby teleports. Requests come in from any thread; each player has at most one
+ * pending request (a newer one to the same destination joins it, one to another destination supersedes it) and at
+ * most {@code perTick} teleports
+ * are released per tick, staff first, then party leaders, then everyone else. Teleports run on the main thread.
+ */
+public final class TeleportAdmissionQueue {
+
+    public static final String PERM_PRIORITY = "lumelobby.teleport.priority";
+
+    enum Priority {
+        STAFF,
+        PARTY_LEADER,
+        NORMAL
+    }
+
+    enum Destination {
+        HUB,
+        LOBBY
+    }
+
+    private final Plugin plugin;
+    private final int perTick;
+    private final Map<UUID, Request> pending = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Request> incoming = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<Request>[] lanes;
+    private final LongAdder admitted = new LongAdder();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private volatile HubPartyHook partyHook;
+    private volatile boolean stopped;
+    private BukkitTask task;
+
+    @SuppressWarnings("unchecked")
+    public TeleportAdmissionQueue(Plugin plugin, int perTick) {
+        this.plugin = plugin;
+        this.perTick = Math.max(1, perTick);
+        this.lanes = new ArrayDeque[Priority.values().length];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new ArrayDeque<>();
+        }
+    }
+
+    public void start() {
+        if (task != null) return;
+        stopped = false;
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * Stops admitting and fails every request that is still waiting, so no caller waits on a future forever.
+     */
+    public void stop() {
+        stopped = true;
+        BukkitTask t = task;
+        task = null;
+        if (t != null) t.cancel();
+
+        for (Request request : pending.values()) fail(request);
+        pending.clear();
+        for (Request request; (request = incoming.poll()) != null; ) fail(request);
+        for (ArrayDeque<Request> lane : lanes) {
+            for (Request request; (request = lane.poll()) != null; ) fail(request);
+        }
+    }
+
+    public void setPartyHook(HubPartyHook hook) {
+        this.partyHook = hook;
+    }
+
+    /**
+     * Queues a teleport. If the player already waits for the same destination, the existing future is returned;
+     * a waiting request to another destination completes with {@link TeleportResult.Status#SUPERSEDED} and is
+     * replaced by this one.
+     *
+     * @return completes with the action's result, or {@link TeleportResult.Status#OFFLINE} if the player left first
+     */
+    CompletableFuture<TeleportResult> submit(Player player, Destination destination, Function<Player, CompletableFuture<TeleportResult>> action) {
+        UUID id = player.getUniqueId();
+        Request[] result = new Request[1];
+        Request[] superseded = new Request[1];
+        pending.compute(id, (key, current) -> {
+            if (current != null && !current.admitted) {
+                if (current.destination == destination) {
+                    current.action = action;
+                    result[0] = current;
+                    return current;
+                }
+                superseded[0] = current;
+            }
+            Request fresh = new Request(id, destination, action, System.nanoTime());
+            result[0] = fresh;
+            incoming.add(fresh);
+            return fresh;
+        });
+        if (superseded[0] != null) {
+            superseded[0].future.complete(new TeleportResult(id, TeleportResult.Status.SUPERSEDED, null));
+        }
+        // Raced with stop(): nothing will ever admit it.
+        if (stopped) {
+            pending.remove(id, result[0]);
+            fail(result[0]);
+        }
+        return result[0].future;
+    }
+
+    /**
+     * Queues a whole batch in one go, in iteration order.
+     */
+    List<CompletableFuture<TeleportResult>> submitAll(Collection<? extends Player> players, Destination destination, Function<Player, CompletableFuture<TeleportResult>> action) {
+        List<CompletableFuture<TeleportResult>> out = new ArrayList<>(players.size());
+        for (Player player : players) {
+            if (player != null) out.add(submit(player, destination, action));
+        }
+        return out;
+    }
+
+    public String statusLine() {
+        long count = admitted.sum();
+        double avg = count == 0 ? 0.0 : waitNanos.get() / 1_000_000.0 / count;
+        return "Teleport queue: " + pending.size() + " waiting | " + count + " admitted | wait avg "
+            + String.format(Locale.ROOT, "%.1f", avg) + " ms, max " + maxWaitNanos.get() / 1_000_000L + " ms";
+    }
+
+    private void tick() {
+        Request next;
+        while ((next = incoming.poll()) != null) {
+            Player player = Bukkit.getPlayer(next.player);
+            lanes[(player == null ? Priority.NORMAL : priorityOf(player)).ordinal()].add(next);
+        }
+
+        int budget = perTick;
+        for (ArrayDeque<Request> lane : lanes) {
+            while (budget > 0 && !lane.isEmpty()) {
+                Request request = lane.poll();
+                boolean[] live = new boolean[1];
+                pending.compute(request.player, (key, current) -> {
+                    if (current != request) return current;
+                    request.admitted = true;
+                    live[0] = true;
+                    return null;
+                });
+                // Superseded by a request to another destination; its future is already completed.
+                if (!live[0]) continue;
+
+                Player player = Bukkit.getPlayer(request.player);
+                if (player == null) {
+                    request.future.complete(new TeleportResult(request.player, TeleportResult.Status.OFFLINE, null));
+                    continue;
+                }
+
+                long waited = System.nanoTime() - request.queuedAt;
+                waitNanos.addAndGet(waited);
+                maxWaitNanos.accumulateAndGet(waited, Math::max);
+                admitted.increment();
+                budget--;
+                try {
+                    request.action.apply(player).whenComplete((result, ex) -> {
+                        if (ex == null) request.future.complete(result);
+                        else fail(request);
+                    });
+                } catch (Throwable t) {
+                    plugin.getLogger().warning("[Hub] Teleport failed: " + t.getMessage());
+                    fail(request);
+                }
+            }
+        }
+    }
+
+    private static void fail(Request request) {
+        request.future.complete(new TeleportResult(request.player, TeleportResult.Status.FAILED, null));
+    }
+
+    private Priority priorityOf(Player player) {
+        if (player.hasPermission(PERM_PRIORITY)) return Priority.STAFF;
+        HubPartyHook hook = partyHook;
+        if (hook == null) return Priority.NORMAL;
+        try {
+            return hook.isPartyLeader(player) ? Priority.PARTY_LEADER : Priority.NORMAL;
+        } catch (Exception e) {
+            plugin.getLogger().warning("[Hub] party hook error: " + e.getMessage());
+            return Priority.NORMAL;
+        }
+    }
+
+    private static final class Request {
+        private final UUID player;
+        private final Destination destination;
+        private final long queuedAt;
+        private final CompletableFuture<TeleportResult> future = new CompletableFuture<>();
+        private volatile Function<Player, CompletableFuture<TeleportResult>> action;
+        // Only touched inside pending.compute for this player.
+        private boolean admitted;
+
+        private Request(UUID player, Destination destination, Function<Player, CompletableFuture<TeleportResult>> action, long queuedAt) {
+            this.player = player;
+            this.destination = destination;
+            this.action = action;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package de.felix.lumelobby.world;
+
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Copies a template world folder off the main thread. Files are copied in parallel (largest region files first)
+ * into a {@code <target>.importing} folder that is moved into place once everything is there, so an interrupted
+ * import never leaves a half-copied world behind. Progress is logged roughly every 10%.
+ * {@link #syncAsync} updates an existing world in place and only touches files that changed.
+ */
+final class TemplateImporter {
+
+    private static final String STAGING_SUFFIX = ".importing";
+    private static final String MANIFEST = "lumelobby-template.manifest";
+    // session.lock may still be held by the server the template came from; uid.dat must not be shared, or every
+    // world copied from the same template (e.g. hub instances) has the same UID and the server refuses to load it twice.
+    private static final Set<String> SKIPPED = Set.of("session.lock", "uid.dat");
+
+    private final Plugin plugin;
+    private final String tag;
+
+    TemplateImporter(Plugin plugin, String tag) {
+        this.plugin = plugin;
+        this.tag = tag;
+    }
+
+    /**
+     * @return completes once {@code target} holds a full copy of {@code source}
+     */
+    CompletableFuture<Void> copyAsync(Path source, Path target) {
+        ExecutorService pool = newPool();
+        Path staging = target.resolveSibling(target.getFileName() + STAGING_SUFFIX);
+
+        CompletableFuture<Void> done = CompletableFuture
+            .supplyAsync(() -> prepare(source, staging), pool)
+            .thenCompose(files -> copyAll(files, source, staging, pool))
+            .thenRunAsync(() -> {
+                try {
+                    Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, pool);
+        done.whenComplete((ignored, ex) -> {
+            pool.shutdown();
+            if (ex != null) deleteQuietly(staging);
+        });
+        return done;
+    }
+
+    /**
+     * Brings {@code target} in line with {@code source} using the manifest left by the previous sync: template
+     * files whose size and mtime are unchanged keep their recorded hash, and a file is only written when its hash
+     * changed or the world copy no longer matches what was written last time. Files are placed with a hard link
+     * when {@code hardLinks} is set and the filesystem allows it, otherwise copied with {@link FileChannel#transferTo}.
+     * Files that were removed from the template are deleted; anything the manifest doesn't know is left alone.
+     */
+    CompletableFuture<Void> syncAsync(Path source, Path target, boolean hardLinks) {
+        ExecutorService pool = newPool();
+        long started = System.nanoTime();
+        AtomicBoolean links = new AtomicBoolean(hardLinks);
+        AtomicInteger written = new AtomicInteger();
+        AtomicLong writtenBytes = new AtomicLong();
+
+        CompletableFuture<Void> done = CompletableFuture
+            .supplyAsync(() -> scan(source, target), pool)
+            .thenCompose(scan -> {
+                List<CompletableFuture<ManifestEntry>> results = new ArrayList<>(scan.files().size());
+                for (Entry entry : scan.files()) {
+                    results.add(CompletableFuture.supplyAsync(() -> {
+                        String rel = source.relativize(entry.path()).toString();
+                        ManifestEntry next = syncFile(entry, rel, target.resolve(rel), scan.previous().get(rel), links);
+                        if (next.written()) {
+                            written.incrementAndGet();
+                            writtenBytes.addAndGet(entry.size());
+                        }
+                        return next;
+                    }, pool));
+                }
+                return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).thenApplyAsync(ignored -> {
+                    Map<String, ManifestEntry> manifest = new LinkedHashMap<>();
+                    for (CompletableFuture<ManifestEntry> result : results) {
+                        ManifestEntry entry = result.join();
+                        manifest.put(entry.path(), entry);
+                    }
+                    int removed = 0;
+                    for (String rel : scan.previous().keySet()) {
+                        if (manifest.containsKey(rel) || skipped(Path.of(rel))) continue;
+                        try {
+                            if (Files.deleteIfExists(target.resolve(rel))) removed++;
+                        } catch (IOException e) {
+                            plugin.getLogger().warning("[" + tag + "] Could not remove " + rel + ": " + e.getMessage());
+                        }
+                    }
+                    writeManifest(target, manifest);
+                    plugin.getLogger().info("[" + tag + "] Template sync: " + written.get() + "/" + manifest.size() + " files updated ("
+                        + (writtenBytes.get() >> 20) + " MB), " + removed + " removed in " + (System.nanoTime() - started) / 1_000_000L + " ms");
+                    return null;
+                }, pool);
+            });
+        done.whenComplete((ignored, ex) -> pool.shutdown());
+        return done;
+    }
+
+    /**
+     * Creates the staging directory tree and lists the files to copy, largest first.
+     */
+    private List<Entry> prepare(Path source, Path staging) {
+        try {
+            deleteQuietly(staging);
+            List<Entry> files = new ArrayList<>();
+            Files.walkFileTree(source, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    Files.createDirectories(staging.resolve(source.relativize(dir).toString()));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (!skipped(file)) files.add(new Entry(file, attrs.size(), attrs.lastModifiedTime().toMillis()));
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            files.sort(Comparator.comparingLong(Entry::size).reversed());
+            return files;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private CompletableFuture<Void> copyAll(List<Entry> files, Path source, Path staging, ExecutorService pool) {
+        long totalBytes = files.stream().mapToLong(Entry::size).sum();
+        plugin.getLogger().info("[" + tag + "] Importing template: " + files.size() + " files, " + (totalBytes >> 20) + " MB");
+
+        long started = System.nanoTime();
+        AtomicLong copiedBytes = new AtomicLong();
+        AtomicInteger lastDecile = new AtomicInteger();
+        CompletableFuture<?>[] copies = new CompletableFuture<?>[files.size()];
+        for (int i = 0; i < files.size(); i++) {
+            Entry entry = files.get(i);
+            copies[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    Path target = staging.resolve(source.relativize(entry.path()).toString());
+                    Files.copy(entry.path(), target, StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (totalBytes == 0) return;
+                int decile = (int) (copiedBytes.addAndGet(entry.size()) * 10 / totalBytes);
+                int previous = lastDecile.get();
+                if (decile > previous && decile < 10 && lastDecile.compareAndSet(previous, decile)) {
+                    plugin.getLogger().info("[" + tag + "] Template import " + decile * 10 + "%");
+                }
+            }, pool);
+        }
+        return CompletableFuture.allOf(copies).thenRun(() -> plugin.getLogger().info(
+            "[" + tag + "] Template copied in " + (System.nanoTime() - started) / 1_000_000L + " ms"
+        ));
+    }
+
+    private Scan scan(Path source, Path target) {
+        try {
+            Map<String, ManifestEntry> previous = readManifest(target);
+            List<Entry> files = new ArrayList<>();
+            Files.walkFileTree(source, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (!skipped(file)) {
+                        files.add(new Entry(file, attrs.size(), attrs.lastModifiedTime().toMillis()));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            files.sort(Comparator.comparingLong(Entry::size).reversed());
+            return new Scan(files, previous);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean skipped(Path file) {
+        return SKIPPED.contains(file.getFileName().toString());
+    }
+
+    private ManifestEntry syncFile(Entry entry, String rel, Path target, ManifestEntry previous, AtomicBoolean links) {
+        try {
+            boolean statUnchanged = previous != null && previous.size() == entry.size() && previous.sourceMtime() == entry.mtime();
+            String hash = statUnchanged ? previous.hash() : hash(entry.path());
+
+            if (previous != null && previous.hash().equals(hash) && Files.isRegularFile(target)
+                && Files.size(target) == entry.size() && Files.getLastModifiedTime(target).toMillis() == previous.targetMtime()) {
+                return new ManifestEntry(rel, hash, entry.size(), entry.mtime(), previous.targetMtime(), false);
+            }
+
+            Files.createDirectories(target.getParent());
+            if (!links.get() || !link(entry.path(), target)) {
+                links.set(false);
+                transfer(entry.path(), target);
+            }
+            return new ManifestEntry(rel, hash, entry.size(), entry.mtime(), Files.getLastModifiedTime(target).toMillis(), true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean link(Path source, Path target) {
+        try {
+            Files.deleteIfExists(target);
+            Files.createLink(target, source);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            plugin.getLogger().info("[" + tag + "] Hard links not available, copying instead: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Copies into a temp file next to the target and swaps it in, so a crash never leaves a half-written region file.
+     */
+    private static void transfer(Path source, Path target) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (in.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static Map<String, ManifestEntry> readManifest(Path target) throws IOException {
+        Path file = target.resolve(MANIFEST);
+        Map<String, ManifestEntry> out = new HashMap<>();
+        if (!Files.isRegularFile(file)) return out;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] parts = line.split("\t", 5);
+            if (parts.length != 5) continue;
+            try {
+                out.put(parts[4], new ManifestEntry(parts[4], parts[0], Long.parseLong(parts[1]), Long.parseLong(parts[2]), Long.parseLong(parts[3]), false));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return out;
+    }
+
+    private static void writeManifest(Path target, Map<String, ManifestEntry> manifest) {
+        List<String> lines = new ArrayList<>(manifest.size());
+        for (ManifestEntry e : manifest.values()) {
+            lines.add(e.hash() + "\t" + e.size() + "\t" + e.sourceMtime() + "\t" + e.targetMtime() + "\t" + e.path());
+        }
+        try {
+            Path tmp = target.resolve(MANIFEST + ".tmp");
+            Files.write(tmp, lines, StandardCharsets.UTF_8);
+            Files.move(tmp, target.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ExecutorService newPool() {
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger threadIds = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "LumeLobby-template-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static void deleteQuietly(Path dir) {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException ignored) {
+                }
+            });
+        } catch (IOException ignored) {
+        }
+    }
+
+    private record Entry(Path path, long size, long mtime) {
+    }
+
+    private record Scan(List<Entry> files, Map<String, ManifestEntry> previous) {
+    }
+
+    /**
+     * One manifest line: template file hash and stat, plus the world copy's mtime right after it was written.
+     */
+    private record ManifestEntry(String path, String hash, long size, long sourceMtime, long targetMtime, boolean written) {
+    }
+}